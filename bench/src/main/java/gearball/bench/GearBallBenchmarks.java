@@ -0,0 +1,52 @@
+/**
+ * File Name        GearBallBenchmarks.java
+ * Purpose          Runs the gear ball benchmarks with the allocation profiler turned on.
+ */
+
+package gearball.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+public class GearBallBenchmarks {
+    /**
+     * Runs the benchmarks. Takes the same options as JMH's own runner (a benchmark name
+     * pattern, -f, -wi, -i, -rf json and so on) and always adds the gc profiler, so every
+     * report carries the bytes allocated per operation (gc.alloc.rate.norm) next to the time.
+     * @param args JMH command line options.
+     */
+    public static void main(String[] args) {
+        try {
+            CommandLineOptions commandLine = new CommandLineOptions(args);
+
+            if (commandLine.shouldHelp()) {
+                commandLine.showHelp();
+                return;
+            }
+
+            Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .addProfiler(GCProfiler.class)
+                    .build();
+            Runner runner = new Runner(options);
+
+            if (commandLine.shouldList())
+                runner.list();
+            else
+                runner.run();
+        } catch (CommandLineOptionException e) {
+            System.err.println("GearBallBenchmarks: error - " + e.getMessage());
+            System.exit(1);
+        } catch (RunnerException | IOException e) {
+            System.err.println("GearBallBenchmarks: error - " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * File Name        GearBallHeuristicBenchmark.java
+ * Purpose          Benchmarks computing h(node) for each kind of heuristic the searches use.
+ */
+
+package gearball.bench;
+
+import gearball.GearBall;
+import gearball.GearBallGearPatternDatabase;
+import gearball.GearBallHeuristic;
+import gearball.GearBallMoveTable;
+import gearball.GearBallRandomizer;
+import gearball.GearBallStickerPatternDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GearBallHeuristicBenchmark {
+    private static final long SEED = 20170923L;
+    private static final int SCRAMBLE_DEPTH = 100;
+    // length of the random walk repeated by every run; a power of 2
+    private static final int NUM_WALK_MOVES = 1 << 12;
+
+    // counting: squares and gears only; gears: and the gear pattern database;
+    // full: and the sticker pattern database too, as the solvers use by default
+    @Param({"counting", "gears", "full"})
+    public String heuristicType;
+
+    // computes h(node)
+    private GearBallHeuristic heuristic;
+    // the gear ball walked over
+    private GearBall gearBall;
+    // the random moves of the walk, and the next one to make
+    private int[] walk = new int[NUM_WALK_MOVES];
+    private int nextMove = 0;
+
+    /**
+     * Builds or loads the pattern databases the heuristic needs and picks the walk.
+     */
+    @Setup
+    public void setUp() {
+        switch (heuristicType) {
+            case "counting":
+                heuristic = new GearBallHeuristic();
+                break;
+            case "gears":
+                heuristic = new GearBallHeuristic(GearBallGearPatternDatabase.getInstance(), null);
+                break;
+            default:
+                heuristic = new GearBallHeuristic(GearBallGearPatternDatabase.getInstance(),
+                                                  GearBallStickerPatternDatabase.getInstance());
+        }
+
+        gearBall = new GearBall();
+        GearBallRandomizer.scramble(gearBall, SEED, SCRAMBLE_DEPTH);
+
+        Random random = new Random(SEED);
+        for (int i = 0; i < NUM_WALK_MOVES; i++)
+            walk[i] = random.nextInt(GearBallMoveTable.NUM_MOVES);
+    }
+
+    /**
+     * Makes the next move of the walk and computes h(node) for the configuration it leaves,
+     * as a search does for every node it generates. Every configuration is new to the gear
+     * ball's caches; the move alone costs what GearBallModelBenchmark.rotate measures.
+     */
+    @Benchmark
+    public int rotateAndGetHValue() {
+        gearBall.rotate(walk[nextMove++ & (NUM_WALK_MOVES - 1)]);
+        return heuristic.getHValue(gearBall);
+    }
+}
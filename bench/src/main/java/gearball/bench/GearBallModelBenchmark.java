@@ -0,0 +1,105 @@
+/**
+ * File Name        GearBallModelBenchmark.java
+ * Purpose          Benchmarks making each move, copying a gear ball and building its keys.
+ */
+
+package gearball.bench;
+
+import gearball.GearBall;
+import gearball.GearBallRandomizer;
+import gearball.GearBallState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GearBallModelBenchmark {
+    // every benchmark starts from the same scrambled gear ball
+    private static final long SEED = 20170923L;
+    private static final int SCRAMBLE_DEPTH = 100;
+
+    /**
+     * A scrambled gear ball and one of the twelve simplified moves to make on it.
+     */
+    @State(Scope.Thread)
+    public static class MoveState {
+        @Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11"})
+        public int move;
+
+        public GearBall gearBall;
+
+        @Setup
+        public void setUp() {
+            gearBall = new GearBall();
+            GearBallRandomizer.scramble(gearBall, SEED, SCRAMBLE_DEPTH);
+        }
+    }
+
+    /**
+     * A scrambled gear ball whose keys have already been built.
+     */
+    @State(Scope.Thread)
+    public static class ScrambledState {
+        public GearBall gearBall;
+
+        @Setup
+        public void setUp() {
+            gearBall = new GearBall();
+            GearBallRandomizer.scramble(gearBall, SEED, SCRAMBLE_DEPTH);
+            gearBall.toString();
+            gearBall.getState();
+        }
+    }
+
+    /**
+     * Makes one move. Repeating a move only ever cycles the gear ball through a few
+     * configurations, so every operation does the same work.
+     */
+    @Benchmark
+    public GearBall rotate(MoveState state) {
+        state.gearBall.rotate(state.move);
+        return state.gearBall;
+    }
+
+    /**
+     * Makes one move and builds the string key of the configuration it leaves; the key
+     * alone costs the difference from rotate.
+     */
+    @Benchmark
+    public String rotateAndToString(MoveState state) {
+        state.gearBall.rotate(state.move);
+        return state.gearBall.toString();
+    }
+
+    /**
+     * Makes one move and packs the configuration it leaves, the key the searches use; the
+     * key alone costs the difference from rotate.
+     */
+    @Benchmark
+    public GearBallState rotateAndGetState(MoveState state) {
+        state.gearBall.rotate(state.move);
+        return state.gearBall.getState();
+    }
+
+    /**
+     * Copies a gear ball, as the searches do for every node they generate.
+     */
+    @Benchmark
+    public GearBall copy(ScrambledState state) {
+        return new GearBall(state.gearBall);
+    }
+}
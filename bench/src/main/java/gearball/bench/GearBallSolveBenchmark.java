@@ -0,0 +1,70 @@
+/**
+ * File Name        GearBallSolveBenchmark.java
+ * Purpose          Benchmarks whole solves of seeded scrambles at fixed depths.
+ */
+
+package gearball.bench;
+
+import gearball.GearBall;
+import gearball.GearBallGearPatternDatabase;
+import gearball.GearBallHeuristic;
+import gearball.GearBallIDAStar;
+import gearball.GearBallRandomizer;
+import gearball.GearBallStickerPatternDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GearBallSolveBenchmark {
+    private static final long SEED = 20170923L;
+
+    // the number of random moves in the scramble
+    @Param({"4", "5", "6", "7", "8", "9", "10"})
+    public int depth;
+
+    // the heuristic the solvers use by default
+    private GearBallHeuristic heuristic;
+    // the scramble solved by every operation
+    private GearBall scrambled;
+
+    /**
+     * Builds or loads the pattern databases and makes the scramble.
+     */
+    @Setup
+    public void setUp() {
+        heuristic = new GearBallHeuristic(GearBallGearPatternDatabase.getInstance(),
+                                          GearBallStickerPatternDatabase.getInstance());
+
+        scrambled = new GearBall();
+        GearBallRandomizer.scramble(scrambled, SEED, depth);
+    }
+
+    /**
+     * Solves the scramble optimally with IDA*.
+     * @return The length of the solution.
+     */
+    @Benchmark
+    public int idaStar() {
+        GearBallIDAStar search = new GearBallIDAStar(scrambled, heuristic);
+        search.setPrintProgress(false);
+        search.performSearch();
+
+        return search.getSolutionDepth();
+    }
+}
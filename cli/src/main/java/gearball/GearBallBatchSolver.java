@@ -0,0 +1,325 @@
+/**
+ * File Name        GearBallBatchSolver.java
+ * Purpose          Solves many scrambles without user interaction, on a pool of threads, and
+ *                  writes one line of results per scramble.
+ */
+
+package gearball;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GearBallBatchSolver {
+    // default time allowed for each solve, in seconds
+    public static final int DEFAULT_TIMEOUT_SECONDS = 60;
+
+    private static final String USAGE =
+            "Usage: java gearball.GearBallBatchSolver [--input <file>|-] [--output <file>] [--format csv|jsonl]\n"
+            + "                                         [--threads <n>] [--timeout <seconds>] [--table <megabytes>]\n"
+            + "Each input line is a scramble: simplified move numbers (0 - 11) separated by spaces or\n"
+            + "commas, made from the solved gear ball, or a 64 hex digit state as printed by GearBallState.\n"
+            + "Blank lines and lines starting with # are skipped. --table shares a transposition table of\n"
+            + "that size between all of the solves.";
+
+    // where results are written, one line per scramble as each solve finishes
+    private PrintWriter output;
+    // true for JSON lines, false for CSV
+    private boolean json;
+    // time allowed for each solve, in milliseconds
+    private long timeoutMillis;
+    // computes h(node) for every solve; shared by all of the threads
+    private GearBallHeuristic heuristic;
+    // the configurations already searched below, shared by all of the solves, or null
+    private GearBallTranspositionTable table;
+    // number of scrambles solved, timed out, rejected and failed with an exception
+    private AtomicInteger numSolved = new AtomicInteger();
+    private AtomicInteger numTimedOut = new AtomicInteger();
+    private AtomicInteger numErrors = new AtomicInteger();
+    private AtomicInteger numFailed = new AtomicInteger();
+
+    /**
+     * Constructor for GearBallBatchSolver
+     * @param output Where the results are written.
+     * @param json true to write JSON lines, false to write CSV
+     * @param timeoutMillis The time allowed for each solve, in milliseconds.
+     * @param heuristic Computes h(node); it must be safe to share between threads
+     */
+    public GearBallBatchSolver(PrintWriter output, boolean json, long timeoutMillis, GearBallHeuristic heuristic) {
+        this.output = output;
+        this.json = json;
+        this.timeoutMillis = timeoutMillis;
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * Sets the transposition table every solve uses. What it holds about a configuration does
+     * not depend on the scramble being solved, so solves can learn from each other.
+     * @param table The table to share, or null for none
+     */
+    public void setTranspositionTable(GearBallTranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Reads the options, solves every scramble and prints a summary to standard error.
+     * @param args The command line options; see USAGE.
+     */
+    public static void main(String[] args) {
+        String inputName = "-";
+        String outputName = null;
+        boolean json = false;
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        int timeoutSeconds = DEFAULT_TIMEOUT_SECONDS;
+        int tableMegabytes = 0;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--input":
+                        inputName = args[++i];
+                        break;
+                    case "--output":
+                        outputName = args[++i];
+                        break;
+                    case "--format":
+                        String format = args[++i];
+                        if (!format.equals("csv") && !format.equals("jsonl")) exitWithUsage("Unknown format: " + format);
+                        json = format.equals("jsonl");
+                        break;
+                    case "--threads":
+                        numThreads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--timeout":
+                        timeoutSeconds = Integer.parseInt(args[++i]);
+                        break;
+                    case "--table":
+                        tableMegabytes = Integer.parseInt(args[++i]);
+                        if (tableMegabytes < 1) exitWithUsage("Table size must be at least 1");
+                        break;
+                    default:
+                        exitWithUsage("Unknown option: " + args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            exitWithUsage("Invalid options");
+        }
+
+        if (numThreads < 1 || timeoutSeconds < 1) exitWithUsage("Threads and timeout must be at least 1");
+
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(inputName.equals("-")
+                ? new InputStreamReader(System.in) : new FileReader(inputName))) {
+            String line;
+            while ((line = reader.readLine()) != null)
+                lines.add(line);
+        } catch (IOException e) {
+            System.err.println("GearBallBatchSolver: error - Could not read " + inputName + ": " + e.getMessage());
+            System.exit(1);
+        }
+
+        // load the pattern databases before timing anything
+        GearBallHeuristic heuristic = new GearBallHeuristic(GearBallGearPatternDatabase.getInstance(),
+                                                            GearBallStickerPatternDatabase.getInstance());
+
+        try (PrintWriter output = outputName == null ? new PrintWriter(System.out)
+                : new PrintWriter(new FileWriter(outputName))) {
+            GearBallBatchSolver batchSolver = new GearBallBatchSolver(output, json, timeoutSeconds * 1000L, heuristic);
+            if (tableMegabytes > 0)
+                batchSolver.setTranspositionTable(new GearBallTranspositionTable(tableMegabytes));
+            batchSolver.solveAll(lines, numThreads);
+        } catch (IOException e) {
+            System.err.println("GearBallBatchSolver: error - Could not write " + outputName + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Solves every scramble on a pool of threads, writing each result as it finishes, then
+     * prints a summary to standard error.
+     * @param lines The input lines; their line numbers identify the results.
+     * @param numThreads The number of solves run at once.
+     */
+    public void solveAll(List<String> lines, int numThreads) {
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+        // interrupts solves that run out of time
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        long startTime = System.currentTimeMillis();
+        int numScrambles = 0;
+
+        if (!json) writeLine("line,status,depth,nodes,millis,moves");
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            int lineNumber = i + 1;
+            numScrambles++;
+            pool.execute(() -> solve(lineNumber, line, timer));
+        }
+
+        pool.shutdown();
+        try {
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        timer.shutdownNow();
+
+        double minutes = Math.max(System.currentTimeMillis() - startTime, 1) / 60000.0;
+        System.err.printf("Solved %d of %d scrambles (%d timed out, %d invalid, %d failed) in %.1f seconds: %.1f solves/minute%n",
+                          numSolved.get(), numScrambles, numTimedOut.get(), numErrors.get(), numFailed.get(),
+                          minutes * 60,
+                          numSolved.get() / minutes);
+    }
+
+    /**
+     * Solves one scramble with IDA*, interrupting it if it runs out of time, and writes the result.
+     * @param lineNumber The input line the scramble is on.
+     * @param line The scramble.
+     * @param timer The executor that interrupts the solve when its time is up.
+     */
+    private void solve(int lineNumber, String line, ScheduledExecutorService timer) {
+        GearBall gearBall = parseScramble(line);
+        if (gearBall == null) {
+            numErrors.incrementAndGet();
+            writeResult(lineNumber, "invalid", -1, 0, 0, null);
+            return;
+        }
+
+        GearBallIDAStar search = new GearBallIDAStar(gearBall, heuristic);
+        search.setPrintProgress(false);
+        search.setTranspositionTable(table);
+
+        Thread solver = Thread.currentThread();
+        ScheduledFuture<?> alarm = timer.schedule(solver::interrupt, timeoutMillis, TimeUnit.MILLISECONDS);
+        long startTime = System.currentTimeMillis();
+        boolean solved;
+
+        try {
+            solved = search.performSearch();
+        } catch (RuntimeException e) {
+            // a line must never go without a result, so a solve that fails is written as an error
+            System.err.println("GearBallBatchSolver: line " + lineNumber + " failed: " + e);
+            numFailed.incrementAndGet();
+            writeResult(lineNumber, "error", -1, search.getNodesVisited(), System.currentTimeMillis() - startTime, null);
+            return;
+        } finally {
+            // if the alarm could not be cancelled it has gone off, perhaps just after the search
+            // finished; wait for it so the interrupt cannot reach the next solve on this thread
+            if (!alarm.cancel(false)) {
+                try {
+                    alarm.get();
+                } catch (InterruptedException | ExecutionException e) {
+                    // the interrupt being waited for
+                }
+            }
+            Thread.interrupted();
+        }
+
+        long millis = System.currentTimeMillis() - startTime;
+
+        if (solved) {
+            numSolved.incrementAndGet();
+            writeResult(lineNumber, "solved", search.getSolutionDepth(), search.getNodesVisited(), millis,
+                        search.getSolutionMoves());
+        } else if (search.wasInterrupted()) {
+            numTimedOut.incrementAndGet();
+            writeResult(lineNumber, "timeout", -1, search.getNodesVisited(), millis, null);
+        } else {
+            writeResult(lineNumber, "unsolved", -1, search.getNodesVisited(), millis, null);
+        }
+    }
+
+    /**
+     * Reads a scramble: either a state printed by GearBallState, or the moves that make it
+     * from the solved gear ball.
+     * @param line The scramble.
+     * @return The scrambled gear ball, or null if the line is not a valid scramble.
+     */
+    protected static GearBall parseScramble(String line) {
+        GearBallState state = GearBallState.fromString(line);
+        // a state whose values are in range may still not describe a gear ball, which the
+        // heuristics cannot be computed for
+        if (state != null) return state.isConsistent() ? state.toGearBall() : null;
+
+        GearBall gearBall = new GearBall();
+
+        for (String token : line.split("[\\s,]+")) {
+            int move;
+            try {
+                move = Integer.parseInt(token);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+
+            if (move < 0 || move >= GearBallMoveTable.NUM_MOVES) return null;
+            gearBall.rotate(move);
+        }
+
+        return gearBall;
+    }
+
+    /**
+     * Writes the result of one scramble in the chosen format.
+     * @param lineNumber The input line the scramble is on.
+     * @param status solved, timeout, unsolved, invalid or error.
+     * @param depth The solution depth, or -1 without a solution.
+     * @param nodes The nodes visited.
+     * @param millis The time taken in milliseconds.
+     * @param moves The solution moves, or null without a solution.
+     */
+    private void writeResult(int lineNumber, String status, int depth, long nodes, long millis, List<Integer> moves) {
+        StringBuilder line = new StringBuilder();
+
+        if (json) {
+            line.append("{\"line\":").append(lineNumber)
+                .append(",\"status\":\"").append(status).append('"')
+                .append(",\"depth\":").append(depth)
+                .append(",\"nodes\":").append(nodes)
+                .append(",\"millis\":").append(millis)
+                .append(",\"moves\":[");
+            for (int i = 0; moves != null && i < moves.size(); i++)
+                line.append(i > 0 ? "," : "").append(moves.get(i));
+            line.append("]}");
+        } else {
+            line.append(lineNumber).append(',').append(status).append(',').append(depth).append(',')
+                .append(nodes).append(',').append(millis).append(',');
+            for (int i = 0; moves != null && i < moves.size(); i++)
+                line.append(i > 0 ? " " : "").append(moves.get(i));
+        }
+
+        writeLine(line.toString());
+    }
+
+    /**
+     * Writes a line of output and flushes it, so results can be read while the batch runs.
+     * @param line The line to write.
+     */
+    private synchronized void writeLine(String line) {
+        output.println(line);
+        output.flush();
+    }
+
+    /**
+     * Prints a problem with the command line and the usage, then exits.
+     * @param problem What was wrong.
+     */
+    private static void exitWithUsage(String problem) {
+        System.err.println("GearBallBatchSolver: error - " + problem);
+        System.err.println(USAGE);
+        System.exit(1);
+    }
+}
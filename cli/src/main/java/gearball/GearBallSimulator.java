@@ -0,0 +1,435 @@
+/**
+ * Author           Taylor Ecton
+ * File Name        GearBallSimulator.java
+ * Date Modified    2017-09-23
+ * Purpose          A class that handles user interaction with the gear ball.
+ */
+
+package gearball;
+
+import java.util.List;
+import java.util.Scanner;
+
+public class GearBallSimulator {
+    // A* gives up rather than run out of memory once the heap is this full
+    private static final double ASTAR_MAX_HEAP_FRACTION = 0.9;
+    // the weight on h(node) the anytime search starts with, and how long it may improve its solution
+    private static final double ANYTIME_INITIAL_WEIGHT = 5.0;
+    private static final long ANYTIME_TIME_LIMIT_MILLIS = 10000;
+
+    // driving function for the program
+    public static void main(String[] args) {
+        GearBall gearBall = new GearBall();
+
+        System.out.println("Welcome to the Gear Ball Simulator!\n");
+        displayMenu();
+
+        // repeatedly prints the menu and gets user input until
+        // the user chooses the quit option
+        while (true) {
+            String userInput = getUserInput();
+            gearBall = processInput(userInput, gearBall);
+            System.out.println();
+            displayMenu();
+        }
+    }
+
+    /**
+     * Prints out user menu.
+     */
+    private static void displayMenu() {
+        System.out.println("Please choose from the following options:");
+        System.out.println("\t1. Randomize Gear Ball");
+        System.out.println("\t2. Solve Gear Ball");
+        System.out.println("\t3. Print Gear Ball");
+        System.out.println("\t4. Reset Gear Ball");
+        System.out.println("\t5. Check if Solved");
+        System.out.println("\t6. Verify Moves");
+        System.out.println("\t7. Help");
+        System.out.println("\t8. Quit");
+        System.out.print("\n(Type 1, 2, 3, 4, 5, 6, 7, or 8 and press 'ENTER'): ");
+    }
+
+    /**
+     * Gets the user input, validating to make sure entry is valid.
+     * @return The input made by the user.
+     */
+    private static String getUserInput() {
+        String input;
+        Scanner scanner = new Scanner(System.in);
+
+        input = scanner.nextLine();
+        while (!isValid(input)) {
+            System.out.println("\nSorry! 1, 2, 3, 4, 5, 6, 7, and 8 are the only valid options.");
+            System.out.print("(Type 1, 2, 3, 4, 5, 6, 7, or 8 and press 'ENTER'): ");
+            input = scanner.nextLine();
+        }
+
+        return input;
+    }
+
+    /**
+     * Verifies validity of menu input.
+     * @param input User input string.
+     * @return true if input is valid, false otherwise
+     */
+    private static boolean isValid(String input) {
+        if (input.equals("1") || input.equals("2") ||
+                input.equals("3") || input.equals("4") ||
+                input.equals("5") || input.equals("6") ||
+                input.equals("7") || input.equals("8"))
+            return true;
+        else
+            return false;
+    }
+
+    /**
+     * Calls the appropriate function based on user input
+     * @param input User input string
+     * @param gearBall The GearBall instance.
+     */
+    private static GearBall processInput(String input, GearBall gearBall) {
+        GearBallRandomizer gbRandomizer = new GearBallRandomizer();
+
+        switch (input) {
+            case "1":
+                // Randomize GearBall
+                gbRandomizer.randomize(gearBall);
+                break;
+            case "2":
+                // Solve GearBall using the search the user picks
+                switch (getSearchChoice()) {
+                    case "1":
+                        gearBall = solveWithAStar(gearBall);
+                        break;
+                    case "2":
+                        gearBall = solveWithIDAStar(gearBall);
+                        break;
+                    case "3":
+                        gearBall = solveWithBidirectionalSearch(gearBall);
+                        break;
+                    case "4":
+                        gearBall = solveWithParallelAStar(gearBall);
+                        break;
+                    case "5":
+                        gearBall = solveWithParallelIDAStar(gearBall);
+                        break;
+                    case "6":
+                        gearBall = solveWithAnytimeAStar(gearBall);
+                        break;
+                }
+                break;
+            case "3":
+                // Print GearBall
+                gearBall.printGearBall();
+                System.out.println();
+                break;
+            case "4":
+                // Reset GearBall
+                gearBall.reset();
+                break;
+            case "5":
+                // Check if Solved
+                if (gearBall.isSolved()) {
+                    System.out.println("The gear ball is in a solved configuration!\n");
+                } else {
+                    System.out.println("The gear ball is NOT in a solved configuration!\n");
+                }
+                break;
+            case "6":
+                // Verify Moves
+                gbRandomizer.verifyMoves(gearBall);
+                break;
+            case "7":
+                // Print Help
+                printHelp();
+                break;
+            case "8":
+                // Quit
+                System.out.println("Thanks for using Gear Ball Simulator!");
+                System.exit(0);
+                break;
+            default:
+                // Execution should not reach this
+                System.err.println("Encountered error - Invalid menu option: " + input);
+                System.exit(1);
+        }
+
+        return gearBall;
+    }
+
+    /**
+     * Asks which search to solve the gear ball with, validating the choice.
+     * @return The choice made by the user.
+     */
+    private static String getSearchChoice() {
+        String input;
+        Scanner scanner = new Scanner(System.in);
+
+        System.out.println("\nWhich search should be used?");
+        System.out.println("\t1. A* (fastest on shallow scrambles, keeps every state in memory)");
+        System.out.println("\t2. IDA* (iterative deepening, uses almost no memory)");
+        System.out.println("\t3. Bidirectional (searches from both the scramble and solved, no heuristic)");
+        System.out.println("\t4. Parallel A* (A* spread over one thread per processor)");
+        System.out.println("\t5. Parallel IDA* (IDA* with the root's subtrees searched in parallel)");
+        System.out.println("\t6. Anytime A* (a quick solution first, then shorter ones for a few seconds)");
+        System.out.print("\n(Type 1, 2, 3, 4, 5, or 6 and press 'ENTER'): ");
+
+        input = scanner.nextLine();
+        while (!(input.equals("1") || input.equals("2") || input.equals("3") || input.equals("4")
+                || input.equals("5") || input.equals("6"))) {
+            System.out.print("(Type 1, 2, 3, 4, 5, or 6 and press 'ENTER'): ");
+            input = scanner.nextLine();
+        }
+
+        return input;
+    }
+
+    /**
+     * Gets the heuristic the solvers use: the counting heuristic combined with the gear and
+     * sticker pattern databases, which are loaded from disk or built the first time.
+     * @return The heuristic.
+     */
+    private static GearBallHeuristic getHeuristic() {
+        return new GearBallHeuristic(GearBallGearPatternDatabase.getInstance(),
+                                     GearBallStickerPatternDatabase.getInstance());
+    }
+
+    /**
+     * Solves the gear ball using A* and prints the results.
+     * @param gearBall The GearBall instance.
+     * @return The solved gear ball, or the unchanged gear ball if no solution was found.
+     */
+    private static GearBall solveWithAStar(GearBall gearBall) {
+        GearBallAStar gbAStar = new GearBallAStar(gearBall, GearBallClosedSet.DEFAULT_MAX_MEGABYTES,
+                                                  new GearBallHeapOpenList(), getHeuristic());
+        GearBallSearchMetrics metrics = new GearBallSearchMetrics();
+        long startTime;
+        long stopTime;
+        double elapsedInSeconds;
+
+        gbAStar.setMetrics(metrics);
+        GearBallMetricsReporter reporter = startMetrics(metrics, "AStar");
+
+        GearBallSearchBudget budget = new GearBallSearchBudget();
+        budget.setMaxHeapFraction(ASTAR_MAX_HEAP_FRACTION);
+
+        startTime = System.currentTimeMillis();
+        GearBallSearchResult result = gbAStar.performSearch(budget);
+        stopMetrics(metrics, reporter);
+
+        if (result.isSolved()) {
+            stopTime = System.currentTimeMillis();
+            elapsedInSeconds = (stopTime - startTime) / 1000.0;
+
+            gbAStar.getCurrentNode().printGearBall();
+            gearBall = gbAStar.getCurrentNode();
+
+            System.out.println("Solution found at depth: " + gbAStar.getSolutionDepth());
+            printSolutionMoves(gbAStar.getSolutionMoves());
+            gbAStar.printSearchReport();
+            System.out.println("Elapsed time (seconds): " + elapsedInSeconds + "\n");
+        } else {
+            System.out.println("Unable to find a solution: " + result);
+        }
+
+        return gearBall;
+    }
+
+    /**
+     * Solves the gear ball using anytime weighted A*, printing each shorter solution as it is
+     * found, and then the best one.
+     * @param gearBall The GearBall instance.
+     * @return The solved gear ball, or the unchanged gear ball if no solution was found.
+     */
+    private static GearBall solveWithAnytimeAStar(GearBall gearBall) {
+        GearBallAStar gbAStar = new GearBallAStar(gearBall, GearBallClosedSet.DEFAULT_MAX_MEGABYTES,
+                                                  new GearBallBucketOpenList(), getHeuristic());
+        GearBallSearchMetrics metrics = new GearBallSearchMetrics();
+
+        gbAStar.setMetrics(metrics);
+        GearBallMetricsReporter reporter = startMetrics(metrics, "AnytimeAStar");
+
+        GearBallSearchBudget budget = new GearBallSearchBudget();
+        budget.setMaxHeapFraction(ASTAR_MAX_HEAP_FRACTION);
+        budget.setTimeLimitMillis(ANYTIME_TIME_LIMIT_MILLIS);
+
+        GearBallSearchResult result = gbAStar.performAnytimeSearch(ANYTIME_INITIAL_WEIGHT, budget, solution ->
+            System.out.println("Found a solution of " + solution.getSolutionMoves().size() + " moves after "
+                               + (solution.getElapsedMillis() / 1000.0) + " seconds (none shorter than "
+                               + solution.getFBound() + ")"));
+        stopMetrics(metrics, reporter);
+
+        // a search stopped by its budget still has the best solution it found, if any
+        if (gbAStar.getCurrentNode().isSolved()) {
+            gbAStar.getCurrentNode().printGearBall();
+            gearBall = gbAStar.getCurrentNode();
+
+            System.out.println((result.isSolved() ? "Optimal solution" : "Best solution found") + " at depth: "
+                               + gbAStar.getSolutionDepth());
+            printSolutionMoves(gbAStar.getSolutionMoves());
+            gbAStar.printSearchReport();
+            System.out.println("Elapsed time (seconds): " + (result.getElapsedMillis() / 1000.0) + "\n");
+        } else {
+            System.out.println("Unable to find a solution: " + result);
+        }
+
+        return gearBall;
+    }
+
+    /**
+     * Solves the gear ball using IDA* and prints the results.
+     * @param gearBall The GearBall instance.
+     * @return The solved gear ball, or the unchanged gear ball if no solution was found.
+     */
+    private static GearBall solveWithIDAStar(GearBall gearBall) {
+        GearBallIDAStar gbIDAStar = new GearBallIDAStar(gearBall, getHeuristic());
+        GearBallSearchMetrics metrics = new GearBallSearchMetrics();
+
+        gbIDAStar.setTranspositionTable(new GearBallTranspositionTable());
+        gbIDAStar.setMetrics(metrics);
+        GearBallMetricsReporter reporter = startMetrics(metrics, "IDAStar");
+
+        boolean solved = gbIDAStar.performSearch();
+        stopMetrics(metrics, reporter);
+
+        if (solved) {
+            gbIDAStar.getCurrentNode().printGearBall();
+            gearBall = gbIDAStar.getCurrentNode();
+
+            System.out.println("Solution found at depth: " + gbIDAStar.getSolutionDepth());
+            printSolutionMoves(gbIDAStar.getSolutionMoves());
+            gbIDAStar.printSearchReport();
+            System.out.println();
+        } else {
+            System.out.println("Unable to find a solution.");
+        }
+
+        return gearBall;
+    }
+
+    /**
+     * Solves the gear ball using bidirectional search and prints the results.
+     * @param gearBall The GearBall instance.
+     * @return The solved gear ball, or the unchanged gear ball if no solution was found.
+     */
+    private static GearBall solveWithBidirectionalSearch(GearBall gearBall) {
+        GearBallBidirectionalSearch gbBidirectional = new GearBallBidirectionalSearch(gearBall);
+
+        if (gbBidirectional.performSearch()) {
+            gbBidirectional.getCurrentNode().printGearBall();
+            gearBall = gbBidirectional.getCurrentNode();
+
+            System.out.println("Solution found at depth: " + gbBidirectional.getSolutionDepth());
+            printSolutionMoves(gbBidirectional.getSolutionMoves());
+            gbBidirectional.printSearchReport();
+            System.out.println();
+        } else {
+            System.out.println("Unable to find a solution.");
+        }
+
+        return gearBall;
+    }
+
+    /**
+     * Solves the gear ball using parallel A* and prints the results.
+     * @param gearBall The GearBall instance.
+     * @return The solved gear ball, or the unchanged gear ball if no solution was found.
+     */
+    private static GearBall solveWithParallelAStar(GearBall gearBall) {
+        GearBallParallelAStar gbParallelAStar = new GearBallParallelAStar(gearBall, getHeuristic());
+
+        if (gbParallelAStar.performSearch()) {
+            gbParallelAStar.getCurrentNode().printGearBall();
+            gearBall = gbParallelAStar.getCurrentNode();
+
+            System.out.println("Solution found at depth: " + gbParallelAStar.getSolutionDepth());
+            printSolutionMoves(gbParallelAStar.getSolutionMoves());
+            gbParallelAStar.printSearchReport();
+            System.out.println();
+        } else {
+            System.out.println("Unable to find a solution.");
+        }
+
+        return gearBall;
+    }
+
+    /**
+     * Solves the gear ball using parallel IDA* and prints the results.
+     * @param gearBall The GearBall instance.
+     * @return The solved gear ball, or the unchanged gear ball if no solution was found.
+     */
+    private static GearBall solveWithParallelIDAStar(GearBall gearBall) {
+        GearBallParallelIDAStar gbParallelIDAStar = new GearBallParallelIDAStar(gearBall, getHeuristic());
+
+        if (gbParallelIDAStar.performSearch()) {
+            gbParallelIDAStar.getCurrentNode().printGearBall();
+            gearBall = gbParallelIDAStar.getCurrentNode();
+
+            System.out.println("Solution found at depth: " + gbParallelIDAStar.getSolutionDepth());
+            printSolutionMoves(gbParallelIDAStar.getSolutionMoves());
+            gbParallelIDAStar.printSearchReport();
+            System.out.println();
+        } else {
+            System.out.println("Unable to find a solution.");
+        }
+
+        return gearBall;
+    }
+
+    /**
+     * Publishes a search's metrics over JMX for as long as it runs, and reports them as JSON
+     * lines if the gearball.metrics property names where to (a file, or - for standard error).
+     * @param metrics The search's metrics.
+     * @param name The name the metrics are published under.
+     * @return The reporter, or null if the metrics are not being reported.
+     */
+    private static GearBallMetricsReporter startMetrics(GearBallSearchMetrics metrics, String name) {
+        metrics.register(name);
+        return GearBallMetricsReporter.startFromProperties(metrics);
+    }
+
+    /**
+     * Writes the last report of a search's metrics and stops publishing them.
+     * @param metrics The search's metrics.
+     * @param reporter The reporter returned by startMetrics, or null.
+     */
+    private static void stopMetrics(GearBallSearchMetrics metrics, GearBallMetricsReporter reporter) {
+        if (reporter != null)
+            reporter.close();
+
+        metrics.unregister();
+    }
+
+    /**
+     * Prints the moves of a solution, one per line.
+     * @param moves The simplified move numbers, in order from the starting configuration.
+     */
+    private static void printSolutionMoves(List<Integer> moves) {
+        System.out.println("Solution moves:");
+        for (int i = 0; i < moves.size(); i++) {
+            System.out.println("\t" + (i + 1) + ". " + GearBall.getMoveDescription(moves.get(i)) + "...");
+        }
+    }
+
+    /**
+     * Prints menu help.
+     */
+    private static void printHelp() {
+        System.out.println("This program simulates a gear ball!\n");
+        System.out.println("The menu options perform the following functions:\n");
+        System.out.println("\t1 - This puts the gear ball into a random configuration!");
+        System.out.println("\t2 - This option attempts to solve the gear ball using the");
+        System.out.println("\t    A*, IDA*, bidirectional, parallel or anytime search!");
+        System.out.println("\t3 - This prints the current configuration of the gear ball!");
+        System.out.println("\t4 - This resets the gear ball to its initial configuration!");
+        System.out.println("\t5 - This tells you if the gear ball is currently solved!");
+        System.out.println("\t6 - This makes a pre-defined sequence of moves, followed by a");
+        System.out.println("\t    sequence that undoes all of those moves. This is used to");
+        System.out.println("\t    verify the system correctly manipulates the gear ball.");
+        System.out.println("\t7 - This prints out help! (<-- YOU ARE HERE)");
+        System.out.println("\t8 - This ends the simulation!\n");
+    }
+
+
+}
@@ -0,0 +1,62 @@
+/**
+ * File Name        GearBallBatchSolverTest.java
+ * Purpose          Checks that the batch solver rejects states that are not gear balls and
+ *                  writes a result for every scramble.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class GearBallBatchSolverTest {
+    // 64 hex digits, every value in range, but every block the same color
+    private static final String ALL_ZERO_STATE = "0000000000000000000000000000000000000000000000000000000000000000";
+
+    @Test
+    public void parseScrambleRejectsStatesThatAreNotGearBalls() {
+        assertNull(GearBallBatchSolver.parseScramble(ALL_ZERO_STATE));
+    }
+
+    @Test
+    public void parseScrambleReadsStatesAndMoves() {
+        GearBall scrambled = new GearBall();
+        GearBallRandomizer.scramble(scrambled, 20170923L, 20);
+
+        GearBall fromState = GearBallBatchSolver.parseScramble(scrambled.getState().toString());
+        assertNotNull(fromState);
+        assertTrue(fromState.hasSameConfiguration(scrambled));
+
+        GearBall fromMoves = GearBallBatchSolver.parseScramble("0, 3 5");
+        GearBall expected = new GearBall();
+        expected.rotate(0);
+        expected.rotate(3);
+        expected.rotate(5);
+        assertTrue(fromMoves.hasSameConfiguration(expected));
+    }
+
+    @Test
+    public void everyScrambleGetsAResult() {
+        StringWriter results = new StringWriter();
+        GearBallBatchSolver batchSolver = new GearBallBatchSolver(new PrintWriter(results), false, 5000,
+                                                                  new GearBallHeuristic());
+
+        batchSolver.solveAll(Arrays.asList("0 3 5", ALL_ZERO_STATE, "# comment", "12"), 2);
+
+        List<String> lines = Arrays.asList(results.toString().split("\\R"));
+        assertEquals("line,status,depth,nodes,millis,moves", lines.get(0));
+        assertEquals(4, lines.size());
+        assertTrue(lines.contains("2,invalid,-1,0,0,"));
+        assertTrue(lines.contains("4,invalid,-1,0,0,"));
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("1,solved,")));
+    }
+}
@@ -5,6 +5,9 @@
  * Purpose          Implements a class that is representative of the gear ball as a whole.
  */
 
+package gearball;
+
+import java.util.Arrays;
 import java.util.HashMap;
 
 public class GearBall {
@@ -21,6 +24,24 @@ public class GearBall {
     private GearBallFace[] faces;
     private final String[] NAMES = {"top", "bottom", "left", "right", "front", "back"};
 
+    // the colors of all six faces, one face after another in the order of faces, and
+    // the states of their gears, four per face; each face reads and writes its own part
+    private char[] cells;
+    private int[] gearStates;
+
+    // keys for the current configuration, built on first use and cleared by every change
+    private String cachedString;
+    private GearBallState cachedState;
+
+    // the squares out of place and the gears not in state 0, counted on first use and then
+    // kept up to date by rotate; -1 when they have to be counted again
+    private int numSquaresOutOfPlace = -1;
+    private int numGearsNotInStateZero = -1;
+
+    // number of cells and gear states across the whole gear ball
+    protected static final int NUM_CELLS = 6 * GearBallFace.NUM_CELLS;
+    protected static final int NUM_GEAR_SLOTS = 6 * 4;
+
     // integers representing the start of rows/columns
     // used for rotation functions
     private final int TOP_START = 0;
@@ -65,7 +86,7 @@ public class GearBall {
     // this array maps the high-level move information above to a simplified move number;
     // the moves in the above HashMap can be simplified into half as many moves that have the
     // same effect
-    private static final int[] SIMPLIFIED_MOVE_NUM = {
+    protected static final int[] SIMPLIFIED_MOVE_NUM = {
         0,
         1,
         0,
@@ -96,53 +117,68 @@ public class GearBall {
      * Default constructor for the gear ball
      */
     public GearBall () {
-        // initializes all GearBallFaces
-        this.top = new GearBallFace(NAMES[0]);
-        this.bottom = new GearBallFace(NAMES[1]);
-
-        this.left = new GearBallFace(NAMES[2]);
-        this.right = new GearBallFace(NAMES[3]);
-
-        this.front = new GearBallFace(NAMES[4]);
-        this.back = new GearBallFace(NAMES[5]);
+        this.cells = new char[NUM_CELLS];
+        this.gearStates = new int[NUM_GEAR_SLOTS];
 
-        this.faces = new GearBallFace[]{top, bottom, left, right, front, back};
+        // initializes all GearBallFaces
+        createFaces();
+        reset();
     }
 
     /**
      * Copy constructor for GearBall
      */
     public GearBall(GearBall toCopy) {
-        GearBallFace[] facesToCopy = toCopy.getFaces();
-
-        this.top = new GearBallFace(facesToCopy[0]);
-        this.bottom = new GearBallFace(facesToCopy[1]);
+        this.cells = Arrays.copyOf(toCopy.cells, NUM_CELLS);
+        this.gearStates = Arrays.copyOf(toCopy.gearStates, NUM_GEAR_SLOTS);
 
-        this.left = new GearBallFace(facesToCopy[2]);
-        this.right = new GearBallFace(facesToCopy[3]);
+        // the keys are immutable, so the copy can share them
+        this.cachedString = toCopy.cachedString;
+        this.cachedState = toCopy.cachedState;
+        this.numSquaresOutOfPlace = toCopy.numSquaresOutOfPlace;
+        this.numGearsNotInStateZero = toCopy.numGearsNotInStateZero;
 
-        this.front = new GearBallFace(facesToCopy[4]);
-        this.back = new GearBallFace(facesToCopy[5]);
-
-        this.faces = new GearBallFace[]{top, bottom, left, right, front, back};
+        createFaces();
     }
 
     public GearBallFace[] getFaces() {
         return faces;
     }
 
+    /**
+     * Gets the colors of every face, row by row, as one string. The cells are already
+     * stored in this order, so the string is built in a single copy and cached until
+     * the configuration changes.
+     * @return The 486 character representation of the configuration.
+     */
     public String toString() {
-        String gearBallString = "";
+        if (cachedString == null)
+            cachedString = new String(cells);
 
-        for (GearBallFace face : faces) {
-            for (int row = 0; row < 9; row++) {
-                for (int col = 0; col < 9; col++) {
-                    gearBallString += face.getColor(row, col);
-                }
-            }
-        }
+        return cachedString;
+    }
+
+    /**
+     * Gets the packed encoding of the configuration, used as the key for this state by
+     * the searches. Cached until the configuration changes.
+     * @return The packed state.
+     */
+    public GearBallState getState() {
+        if (cachedState == null)
+            cachedState = new GearBallState(this);
+
+        return cachedState;
+    }
 
-        return gearBallString;
+    /**
+     * Drops the cached keys. Called whenever the configuration changes; anything that
+     * changes the faces directly rather than through this class must call it as well.
+     */
+    protected void clearCachedKeys() {
+        cachedString = null;
+        cachedState = null;
+        numSquaresOutOfPlace = -1;
+        numGearsNotInStateZero = -1;
     }
 
     /**
@@ -188,6 +224,12 @@ public class GearBall {
     public void reset() {
         for (GearBallFace face : faces)
             face.setSolid();
+
+        Arrays.fill(gearStates, 0);
+        clearCachedKeys();
+
+        numSquaresOutOfPlace = 0;
+        numGearsNotInStateZero = 0;
     }
 
     public int getSimplifiedMoveNum(int number) {
@@ -195,11 +237,71 @@ public class GearBall {
     }
 
     /**
-     * Maps the move number provided to the appropriate function
-     * @param moveNum A move number whose high-level description can be found
-     *                in the MOVES HashMap
+     * Gets a human readable description of a simplified move, taken from the first
+     * entry of MOVES that simplifies to it.
+     * @param moveNum A simplified move number (0 - 11)
+     * @return A description such as "Holding the top, rotating the middle left"
+     */
+    public static String getMoveDescription(int moveNum) {
+        for (int move = 0; move < SIMPLIFIED_MOVE_NUM.length; move++) {
+            if (SIMPLIFIED_MOVE_NUM[move] == moveNum) {
+                String[] moveParameters = MOVES.get(move);
+                return "Holding the " + moveParameters[0] + ", rotating the " + moveParameters[1]
+                        + " " + moveParameters[2];
+            }
+        }
+
+        return "Invalid simplified move number: " + moveNum;
+    }
+
+    /**
+     * Performs a move using the precomputed move tables
+     * @param moveNum A simplified move number (0 - 11); see SIMPLIFIED_MOVE_NUM
      */
     public void rotate(int moveNum) {
+        if (moveNum < 0 || moveNum >= GearBallMoveTable.NUM_MOVES) {
+            System.err.println("GearBall.rotate(): error - Invalid simplified move number: " + moveNum);
+            System.exit(1);
+        }
+
+        // the move changes only the counts of the squares and gears it touches, so take
+        // those out before the move and add them back after
+        int outOfPlace = numSquaresOutOfPlace;
+        int gearsNotInStateZero = numGearsNotInStateZero;
+
+        if (outOfPlace >= 0)
+            outOfPlace -= GearBallMoveTable.countOutOfPlaceBefore(moveNum, cells);
+        if (gearsNotInStateZero >= 0)
+            gearsNotInStateZero -= GearBallMoveTable.countTurnedSlotsNotInStateZeroBefore(moveNum, gearStates) / 2;
+
+        GearBallMoveTable.apply(moveNum, cells, gearStates);
+        clearCachedKeys();
+
+        if (outOfPlace >= 0)
+            numSquaresOutOfPlace = outOfPlace + GearBallMoveTable.countOutOfPlaceAfter(moveNum, cells);
+        if (gearsNotInStateZero >= 0)
+            numGearsNotInStateZero = gearsNotInStateZero
+                    + GearBallMoveTable.countTurnedSlotsNotInStateZeroAfter(moveNum, gearStates) / 2;
+    }
+
+    /**
+     * Checks if another gear ball is in exactly the same configuration as this one,
+     * including the states of the gears.
+     * @param other The other gear ball.
+     * @return true if the configurations match, false otherwise
+     */
+    public boolean hasSameConfiguration(GearBall other) {
+        return Arrays.equals(cells, other.cells) && Arrays.equals(gearStates, other.gearStates);
+    }
+
+    /**
+     * Maps the move number provided to the appropriate hand-written rotation function.
+     * These are the reference the move tables are built from and checked against.
+     * @param moveNum A simplified move number (0 - 11)
+     */
+    protected void rotateReference(int moveNum) {
+        clearCachedKeys();
+
         // uses the simplified move number of moveNum to map to appropriate function
         switch (moveNum) {
             case 0:
@@ -240,13 +342,39 @@ public class GearBall {
                 break;
             default:
                 // the function was somehow passed an invalid parameter
-                System.err.println("GearBall.rotate(): error - Invalid simplified move number: "
-                                    + SIMPLIFIED_MOVE_NUM[moveNum]);
+                System.err.println("GearBall.rotateReference(): error - Invalid simplified move number: "
+                                    + moveNum);
                 System.exit(1);
         }
     }
 
+    /**
+     * Gets the number of squares out of place on all six faces, as counted by
+     * GearBallFace.getNumSquaresOutOfPlace.
+     * @return The number of squares out of place.
+     */
+    public int getNumSquaresOutOfPlace() {
+        if (numSquaresOutOfPlace < 0) {
+            numSquaresOutOfPlace = 0;
+            for (GearBallFace face : faces)
+                numSquaresOutOfPlace += face.getNumSquaresOutOfPlace();
+        }
+
+        return numSquaresOutOfPlace;
+    }
+
+    /**
+     * Gets the number of the twelve gears that are not in state 0.
+     * @return The number of gears not in state 0.
+     */
     public int getNumGearsNotInStateZero() {
+        if (numGearsNotInStateZero < 0)
+            numGearsNotInStateZero = countGearsNotInStateZero();
+
+        return numGearsNotInStateZero;
+    }
+
+    private int countGearsNotInStateZero() {
         int gearsNotInStateZero = 0;
 
         int[] gearStates = new int[12];
@@ -271,6 +399,28 @@ public class GearBall {
         return gearsNotInStateZero;
     }
 
+    /**
+     * Gets the color of one side of one of the twelve gears: the color of the edge block
+     * holding the gear on that side's face.
+     * @param gear The gear number, indexed as in GearBallState.GEARS.
+     * @param side 0 for the face GearBallState.GEARS[gear][0], 1 for the adjacent face.
+     * @return The char representing the color.
+     */
+    public char getGearColor(int gear, int side) {
+        int[] gearSide = GearBallState.GEARS[gear];
+        int[] coordinates = GearBallFace.GEARCOLORCOORDINATES[gearSide[side * 2 + 1]];
+        return faces[gearSide[side * 2]].getColor(coordinates[0], coordinates[1]);
+    }
+
+    /**
+     * Gets the state of one of the twelve gears.
+     * @param gear The gear number, indexed as in GearBallState.GEARS.
+     * @return The state of the gear (0 - 5).
+     */
+    public int getGearState(int gear) {
+        return gearStates[GearBallState.GEARS[gear][0] * 4 + GearBallState.GEARS[gear][1]];
+    }
+
     /**
      * Performs a rotation holding the top static and rotating
      * the bottom towards the left face (counter-clockwise).
@@ -738,6 +888,26 @@ public class GearBall {
         bottom.setGearState(3, tempGearState);
     }
 
+    /**
+     * Creates the six faces over this gear ball's shared cell and gear state arrays.
+     */
+    private void createFaces() {
+        this.faces = new GearBallFace[NAMES.length];
+
+        for (int i = 0; i < NAMES.length; i++) {
+            faces[i] = new GearBallFace(NAMES[i], cells, i * GearBallFace.NUM_CELLS, gearStates, i * 4);
+        }
+
+        this.top = faces[0];
+        this.bottom = faces[1];
+
+        this.left = faces[2];
+        this.right = faces[3];
+
+        this.front = faces[4];
+        this.back = faces[5];
+    }
+
     /**
      * Used to print the top, bottom and back in the GUI representation. The face
      * is offset to account for the middle row being longer.
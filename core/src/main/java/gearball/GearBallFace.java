@@ -5,21 +5,29 @@
  * Purpose          Implements a class that is representative of a single face of a gear ball
  */
 
+package gearball;
+
 public class GearBallFace {
     // which face is this? (e.g. top, bottom, etc)
     private String name;
 
-    // 2D array to hold the state of the face
-    private char faceArray[][];
+    // array holding the colors of the face in row-major order, starting at offset; the
+    // array may be shared with the other faces of a GearBall
+    private char[] faceArray;
+    private int offset;
 
     // array of integers representing the state of each of
-    // the four gears on this face
-    // e.g. gearState[0] is the state of gear 0
+    // the four gears on this face, starting at gearOffset
+    // e.g. gearState[gearOffset] is the state of gear 0
     private int[] gearState;
+    private int gearOffset;
 
-    // the dimensions of the 2D array will be SIZE x SIZE
+    // the dimensions of the face will be SIZE x SIZE
     protected static final int SIZE = 9;
 
+    // number of cells on a face
+    protected static final int NUM_CELLS = SIZE * SIZE;
+
     private static final int CENTER = 4;
 
     // Coordinates for each gear on the face
@@ -42,41 +50,49 @@ public class GearBallFace {
                     }
             };
 
+    // cells next to each gear that always show this face's color, as used by getGearColors
+    protected static final int[][] GEARCOLORCOORDINATES =
+            new int[][]{
+                    {1, 3}, {3, 7}, {7, 3}, {3, 1}
+            };
+
     /**
      * Constructor for GearBallFace.
      * @param name The name of the face (top, left, front, right, bottom, back)
      */
     public GearBallFace(String name) {
-        // set the size of the 2D array
-        this.faceArray = new char[SIZE][SIZE];
-        // set the name of this face
-        this.name = name;
-        // set each gear to initial state
-        this.gearState = new int[]{0, 0, 0, 0};
+        // allocate storage for this face alone
+        this(name, new char[NUM_CELLS], 0, new int[4], 0);
 
-        // initialize the 2D array to be solid color
+        // initialize the face to be solid color
         this.setSolid();
     }
 
+    /**
+     * Constructor for a GearBallFace stored inside arrays shared with the rest of a GearBall.
+     * The contents of the arrays are left as they are.
+     * @param name The name of the face (top, left, front, right, bottom, back)
+     * @param cells Array holding the colors of this face starting at offset
+     * @param offset Index of row 0, column 0 of this face in cells
+     * @param gearStates Array holding the states of this face's gears starting at gearOffset
+     * @param gearOffset Index of gear 0 of this face in gearStates
+     */
+    protected GearBallFace(String name, char[] cells, int offset, int[] gearStates, int gearOffset) {
+        this.name = name;
+        this.faceArray = cells;
+        this.offset = offset;
+        this.gearState = gearStates;
+        this.gearOffset = gearOffset;
+    }
+
     /**
      * Copy constructor for GearBallFace
      */
     public GearBallFace(GearBallFace toCopy) {
-        // set the size of the 2D array
-        this.faceArray = new char[SIZE][SIZE];
-        // set the name of this face
-        this.name = toCopy.name;
-        this.gearState = new int[4];
-
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                this.faceArray[row][col] = toCopy.getColor(row, col);
-            }
-        }
+        this(toCopy.name, new char[NUM_CELLS], 0, new int[4], 0);
 
-        for (int i = 0; i < 4; i++) {
-            this.gearState[i] = toCopy.getGearState(i);
-        }
+        System.arraycopy(toCopy.faceArray, toCopy.offset, this.faceArray, 0, NUM_CELLS);
+        System.arraycopy(toCopy.gearState, toCopy.gearOffset, this.gearState, 0, 4);
     }
 
     /**
@@ -86,7 +102,7 @@ public class GearBallFace {
      * @return The char representing the color at that index.
      */
     public char getColor(int row, int column) {
-        return faceArray[row][column];
+        return faceArray[index(row, column)];
     }
 
     /**
@@ -96,7 +112,7 @@ public class GearBallFace {
      * @param color Color to set the space to.
      */
     public void setColor(int row, int column, char color) {
-        faceArray[row][column] = color;
+        faceArray[index(row, column)] = color;
     }
 
     /**
@@ -114,7 +130,7 @@ public class GearBallFace {
 
         for (int row = 0; row < rows; row++) {
             for (int column = 0; column < columns; column++) {
-                values[row][column] = faceArray[currentRowInFaceArray][column];
+                values[row][column] = faceArray[index(currentRowInFaceArray, column)];
             }
             currentRowInFaceArray++;
         }
@@ -149,7 +165,7 @@ public class GearBallFace {
 
         for (int row = 0; row < rows; row++) {
             for (int column = 0; column < columns; column++) {
-                values[row][column] = faceArray[currentRowInFaceArray][currentColumnInFaceArray];
+                values[row][column] = faceArray[index(currentRowInFaceArray, currentColumnInFaceArray)];
                 currentColumnInFaceArray--;
             }
             currentColumnInFaceArray = SIZE-1;
@@ -173,7 +189,7 @@ public class GearBallFace {
 
         for (int row = 0; row < rows; row++) {
             for (int column = 0; column < columns; column++) {
-                values[row][column] = faceArray[row][currentColumnInFaceArray];
+                values[row][column] = faceArray[index(row, currentColumnInFaceArray)];
                 currentColumnInFaceArray++;
             }
             currentColumnInFaceArray = start;
@@ -194,7 +210,7 @@ public class GearBallFace {
 
         for (int row = 0; row < rows; row++) {
             for (int column = 0; column < columns; column++) {
-                faceArray[currentRowInFaceArray][column] = values[row][column];
+                faceArray[index(currentRowInFaceArray, column)] = values[row][column];
             }
             currentRowInFaceArray++;
         }
@@ -226,7 +242,7 @@ public class GearBallFace {
 
         for (int row = rows-1; row >= 0; row--) {
             for (int column = columns-1; column >= 0; column--) {
-                faceArray[currentRowInFaceArray][currentColumnInFaceArray] = values[row][column];
+                faceArray[index(currentRowInFaceArray, currentColumnInFaceArray)] = values[row][column];
                 currentColumnInFaceArray++;
             }
             currentColumnInFaceArray = 0;
@@ -246,7 +262,7 @@ public class GearBallFace {
 
         for (int row = 0; row < rows; row++) {
             for (int column = 0; column < columns; column++) {
-                faceArray[row][currentColumnInFaceArray] = values[row][column];
+                faceArray[index(row, currentColumnInFaceArray)] = values[row][column];
                 currentColumnInFaceArray++;
             }
             currentColumnInFaceArray = start;
@@ -264,14 +280,14 @@ public class GearBallFace {
         // create a temporary copy of faceArray
         for (int row = 0; row < SIZE; row++) {
             for (int column = 0; column < SIZE; column++) {
-                temp[row][column] = faceArray[row][column];
+                temp[row][column] = faceArray[index(row, column)];
             }
         }
 
         // reassign values into the new indices
         for (int row = 0; row < SIZE; row++) {
             for (int column = 0; column < SIZE; column++) {
-                faceArray[row][column] = temp[oppRow][oppCol];
+                faceArray[index(row, column)] = temp[oppRow][oppCol];
                 oppCol--;
             }
             oppCol = SIZE-1;
@@ -279,13 +295,13 @@ public class GearBallFace {
         }
 
         // update the gear states accordingly
-        int tempGearState = gearState[0];
-        gearState[0] = gearState[2];
-        gearState[2] = tempGearState;
+        int tempGearState = gearState[gearOffset];
+        gearState[gearOffset] = gearState[gearOffset + 2];
+        gearState[gearOffset + 2] = tempGearState;
 
-        tempGearState = gearState[1];
-        gearState[1] = gearState[3];
-        gearState[3] = tempGearState;
+        tempGearState = gearState[gearOffset + 1];
+        gearState[gearOffset + 1] = gearState[gearOffset + 3];
+        gearState[gearOffset + 3] = tempGearState;
     }
 
     /**
@@ -298,24 +314,24 @@ public class GearBallFace {
 
         for (int row = 0; row < SIZE; row++) {
             for (int column = 0; column < SIZE; column++) {
-                temp[row][column] = faceArray[row][column];
+                temp[row][column] = faceArray[index(row, column)];
             }
         }
 
         for (int row = 0; row < SIZE; row++) {
             for (int column = 0; column < SIZE; column++) {
-                faceArray[row][column] = temp[oppRow][oppCol];
+                faceArray[index(row, column)] = temp[oppRow][oppCol];
                 oppRow--;
             }
             oppRow = SIZE-1;
             oppCol++;
         }
 
-        int tempGearState = gearState[0];
-        gearState[0] = gearState[3];
-        gearState[3] = gearState[2];
-        gearState[2] = gearState[1];
-        gearState[1] = tempGearState;
+        int tempGearState = gearState[gearOffset];
+        gearState[gearOffset] = gearState[gearOffset + 3];
+        gearState[gearOffset + 3] = gearState[gearOffset + 2];
+        gearState[gearOffset + 2] = gearState[gearOffset + 1];
+        gearState[gearOffset + 1] = tempGearState;
     }
 
     /**
@@ -328,24 +344,24 @@ public class GearBallFace {
 
         for (int row = 0; row < SIZE; row++) {
             for (int column = 0; column < SIZE; column++) {
-                temp[row][column] = faceArray[row][column];
+                temp[row][column] = faceArray[index(row, column)];
             }
         }
 
         for (int row = 0; row < SIZE; row++) {
             for (int column = 0; column < SIZE; column++) {
-                faceArray[row][column] = temp[oppRow][oppCol];
+                faceArray[index(row, column)] = temp[oppRow][oppCol];
                 oppRow++;
             }
             oppRow = 0;
             oppCol--;
         }
 
-        int tempGearState = gearState[0];
-        gearState[0] = gearState[1];
-        gearState[1] = gearState[2];
-        gearState[2] = gearState[3];
-        gearState[3] = tempGearState;
+        int tempGearState = gearState[gearOffset];
+        gearState[gearOffset] = gearState[gearOffset + 1];
+        gearState[gearOffset + 1] = gearState[gearOffset + 2];
+        gearState[gearOffset + 2] = gearState[gearOffset + 3];
+        gearState[gearOffset + 3] = tempGearState;
     }
 
     /**
@@ -360,7 +376,7 @@ public class GearBallFace {
     public void rotateGear(GearBallFace adjacentFace, int gearNumber, int rotationDirection) {
         // current state is the state the gear is currently in
         // the gears have a total of 5 states
-        int currentState = this.gearState[gearNumber];
+        int currentState = this.gearState[gearOffset + gearNumber];
         int nextState;
         int adjGearNumber;
         char[] gearColors;
@@ -381,8 +397,8 @@ public class GearBallFace {
         gearColors = getGearColors(gearNumber, adjacentFace);
 
         gearToState(this, gearNumber, adjacentFace, adjGearNumber, gearColors, nextState);
-        this.gearState[gearNumber] = nextState;
-        adjacentFace.gearState[adjGearNumber] = nextState;
+        this.gearState[gearOffset + gearNumber] = nextState;
+        adjacentFace.gearState[adjacentFace.gearOffset + adjGearNumber] = nextState;
     }
 
     /**
@@ -395,7 +411,7 @@ public class GearBallFace {
 
         // print char representing color for each index
         for (int column = 0; column < SIZE; column++) {
-            System.out.print(faceArray[row][column]);
+            System.out.print(faceArray[index(row, column)]);
 
             // adding some spaces to improve readability of representation
             if ((column + 1) % 3 == 0)
@@ -416,12 +432,12 @@ public class GearBallFace {
      */
     public boolean isAllSameColor() {
         // set color to check against to be first element
-        char color = faceArray[0][0];
+        char color = faceArray[index(0, 0)];
 
         // iterate through each element; return false if a color doesn't match
         for (int row = 0; row < SIZE; row++) {
             for (int column = 0; column < SIZE; column++) {
-                if (faceArray[row][column] != color)
+                if (faceArray[index(row, column)] != color)
                     return false;
             }
         }
@@ -441,7 +457,7 @@ public class GearBallFace {
         // set the 2D array to all be same color
         for (int row = 0; row < SIZE; row++) {
             for (int column = 0; column < SIZE; column++) {
-                faceArray[row][column] = color;
+                faceArray[index(row, column)] = color;
             }
         }
     }
@@ -628,20 +644,20 @@ public class GearBallFace {
     }
 
     protected void setGearState(int gearNumber, int newState) {
-        gearState[gearNumber] = newState;
+        gearState[gearOffset + gearNumber] = newState;
     }
 
     protected int getGearState(int gearNumber) {
-        return gearState[gearNumber];
+        return gearState[gearOffset + gearNumber];
     }
 
     public int getNumSquaresOutOfPlace() {
         int num = 0;
-        char correctColor = faceArray[CENTER][CENTER];
+        char correctColor = faceArray[index(CENTER, CENTER)];
 
         for (int row = 2; row <= 6; row += 2) {
             for (int col = 2; col <= 6; col +=2) {
-                if (faceArray[row][col] != correctColor)
+                if (faceArray[index(row, col)] != correctColor)
                     num++;
             }
         }
@@ -649,6 +665,16 @@ public class GearBallFace {
         return num;
     }
 
+    /**
+     * Gets the index of a cell of this face in faceArray.
+     * @param row Row of the cell.
+     * @param column Column of the cell.
+     * @return The index of the cell.
+     */
+    private int index(int row, int column) {
+        return offset + row * SIZE + column;
+    }
+
     /**
      * Sets the initial color of the face.
      * @return Char representation of the face color.
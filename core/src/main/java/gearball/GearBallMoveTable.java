@@ -0,0 +1,628 @@
+/**
+ * File Name        GearBallMoveTable.java
+ * Purpose          Precomputed cell permutations and gear state transitions for the twelve moves.
+ */
+
+package gearball;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+public class GearBallMoveTable {
+    // number of simplified moves
+    public static final int NUM_MOVES = 12;
+
+    // labels written into the cells of a gear ball to track where each cell moves to;
+    // all of them lie outside the range of the color chars
+    private static final char FIRST_LABEL = 0x100;
+
+    // the cell at the center of each face, as an index into GearBall's cells
+    private static final int CENTER_CELL = 4 * GearBallFace.SIZE + 4;
+
+    // for each move, the cells that move, stored as a list of cycles; each cycle is its
+    // length followed by its cells, and cells[c(i)] takes the value of cells[c(i + 1)]
+    private static final int[][] CELL_CYCLES = new int[NUM_MOVES][];
+
+    // for each move, the gear slots (face * 4 + gearNumber) that move or turn, stored
+    // the same way as CELL_CYCLES, and the amount each slot's state changes by once moved
+    private static final int[][] GEAR_CYCLES = new int[NUM_MOVES][];
+    private static final int[][] GEAR_DELTAS = new int[NUM_MOVES][];
+
+    // for each move, the gear slots that are turned and must have their teeth redrawn,
+    // the cell showing that slot's own color, the cell showing the adjacent face's color,
+    // and the four tooth cells of the slot
+    private static final int[][] TURNED_SLOTS = new int[NUM_MOVES][];
+    private static final int[][] OWN_COLOR_CELLS = new int[NUM_MOVES][];
+    private static final int[][] ADJ_COLOR_CELLS = new int[NUM_MOVES][];
+    private static final int[][] TOOTH_CELLS = new int[NUM_MOVES][];
+
+    // for each move, the gear (indexed as in GearBallState.GEARS) whose state moves to each
+    // gear position, and the amount that state changes by; the gear-only view of GEAR_CYCLES
+    private static final int[][] GEAR_POSITION_SOURCE = new int[NUM_MOVES][GearBallState.NUM_GEARS];
+    private static final int[][] GEAR_POSITION_DELTA = new int[NUM_MOVES][GearBallState.NUM_GEARS];
+    // whether the gear arrives turned around, its first side (GearBallState.GEARS[gear][0])
+    // now showing what was its second side
+    private static final boolean[][] GEAR_POSITION_FLIPPED = new boolean[NUM_MOVES][GearBallState.NUM_GEARS];
+
+    // for each move, the cell whose color moves to each cell, ignoring the redrawn gear teeth
+    private static final int[][] CELL_SOURCE = new int[NUM_MOVES][];
+    // for each move, the block position (face * 9 + block) each block position's color came from
+    private static final int[][] BLOCK_SOURCE = new int[NUM_MOVES][6 * GearBallState.BLOCKS_PER_FACE];
+
+    // the squares GearBallFace.getNumSquaresOutOfPlace compares with their face's center,
+    // in rows and columns 2, 4 and 6 of each face
+    private static final int[] COUNTED_SQUARES = new int[6 * 8];
+    // for each move, the counted squares whose comparison with their center the move ends:
+    // every one but those that arrive somewhere with the center they were compared with;
+    // each square is followed by its face's center
+    private static final int[][] COUNTED_BEFORE = new int[NUM_MOVES][];
+    // for each move, the counted squares whose comparison with their center is new after
+    // the move, each followed by its face's center
+    private static final int[][] COUNTED_AFTER = new int[NUM_MOVES][];
+    // for each move, the gear slot each turned slot's state came from
+    private static final int[][] TURNED_SOURCE_SLOTS = new int[NUM_MOVES][];
+
+    // the gear (indexed as in GearBallState.GEARS) each gear slot belongs to
+    private static final int[] GEAR_OF_SLOT = new int[GearBall.NUM_GEAR_SLOTS];
+
+    // the block (in row-major order) that holds each of the four gears of a face
+    private static final int[] GEAR_BLOCK = {1, 5, 7, 3};
+
+    // the gear slot on the other side of each gear slot
+    private static final int[] ADJACENT_SLOT = new int[GearBall.NUM_GEAR_SLOTS];
+
+    static {
+        for (int gearNum = 0; gearNum < GearBallState.NUM_GEARS; gearNum++) {
+            int[] gear = GearBallState.GEARS[gearNum];
+            ADJACENT_SLOT[gear[0] * 4 + gear[1]] = gear[2] * 4 + gear[3];
+            ADJACENT_SLOT[gear[2] * 4 + gear[3]] = gear[0] * 4 + gear[1];
+            GEAR_OF_SLOT[gear[0] * 4 + gear[1]] = gearNum;
+            GEAR_OF_SLOT[gear[2] * 4 + gear[3]] = gearNum;
+        }
+
+        for (int move = 0; move < NUM_MOVES; move++) {
+            buildMove(move);
+        }
+
+        int counted = 0;
+        for (int face = 0; face < 6; face++) {
+            for (int row = 2; row <= 6; row += 2) {
+                for (int column = 2; column <= 6; column += 2) {
+                    if (row != 4 || column != 4)
+                        COUNTED_SQUARES[counted++] = cellIndex(face, row, column);
+                }
+            }
+        }
+
+        for (int move = 0; move < NUM_MOVES; move++) {
+            buildCountedSquares(move);
+        }
+
+        // every block moves as a whole, so it goes where the cell of it that always shows its color goes
+        for (int move = 0; move < NUM_MOVES; move++) {
+            for (int position = 0; position < BLOCK_SOURCE[move].length; position++) {
+                int face = position / GearBallState.BLOCKS_PER_FACE;
+                int[] cell = GearBallState.BLOCK_CELLS[position % GearBallState.BLOCKS_PER_FACE];
+                int source = CELL_SOURCE[move][cellIndex(face, cell[0], cell[1])];
+
+                BLOCK_SOURCE[move][position] = faceOf(source) * GearBallState.BLOCKS_PER_FACE
+                        + (rowOf(source) / 3) * 3 + columnOf(source) / 3;
+            }
+        }
+    }
+
+    /**
+     * Performs a move on the cells and gear states of a gear ball in place.
+     * @param move The simplified move number (0 - 11).
+     * @param cells The colors of all six faces, as stored by GearBall.
+     * @param gearStates The states of all gear slots, as stored by GearBall.
+     */
+    protected static void apply(int move, char[] cells, int[] gearStates) {
+        // move every cell along its cycle
+        int[] cycles = CELL_CYCLES[move];
+        for (int i = 0; i < cycles.length; ) {
+            int length = cycles[i++];
+            int end = i + length - 1;
+            char first = cells[cycles[i]];
+
+            for (; i < end; i++)
+                cells[cycles[i]] = cells[cycles[i + 1]];
+            cells[cycles[i++]] = first;
+        }
+
+        // move the gear states along with their gears, turning the ones this move turns
+        cycles = GEAR_CYCLES[move];
+        int[] deltas = GEAR_DELTAS[move];
+        for (int i = 0; i < cycles.length; ) {
+            int length = cycles[i++];
+            int end = i + length - 1;
+            int first = gearStates[cycles[i]];
+
+            for (; i < end; i++)
+                gearStates[cycles[i]] = (gearStates[cycles[i + 1]] + deltas[i]) % GearBallState.NUM_GEAR_STATES;
+            gearStates[cycles[i]] = (first + deltas[i]) % GearBallState.NUM_GEAR_STATES;
+            i++;
+        }
+
+        // redraw the teeth of the turned gears for their new states
+        int[] turned = TURNED_SLOTS[move];
+        int[] ownCells = OWN_COLOR_CELLS[move];
+        int[] adjCells = ADJ_COLOR_CELLS[move];
+        int[] teeth = TOOTH_CELLS[move];
+        for (int i = 0; i < turned.length; i++) {
+            boolean[] showsAdjacent = GearBallState.TOOTH_SHOWS_ADJACENT[gearStates[turned[i]]];
+            char own = cells[ownCells[i]];
+            char adj = cells[adjCells[i]];
+
+            for (int tooth = 0; tooth < 4; tooth++)
+                cells[teeth[i * 4 + tooth]] = showsAdjacent[tooth] ? adj : own;
+        }
+    }
+
+    /**
+     * Counts the squares out of place, among those whose comparison a move ends, before
+     * the move is made. Together with countOutOfPlaceAfter this gives the change the move
+     * makes to the squares out of place without looking at the others.
+     * @param move The simplified move number (0 - 11).
+     * @param cells The colors of all six faces, as stored by GearBall.
+     * @return The number of those squares that differ from their face's center.
+     */
+    protected static int countOutOfPlaceBefore(int move, char[] cells) {
+        return countOutOfPlace(COUNTED_BEFORE[move], cells);
+    }
+
+    /**
+     * Counts the squares out of place, among those whose comparison a move starts, after
+     * the move is made.
+     * @param move The simplified move number (0 - 11).
+     * @param cells The colors of all six faces, as stored by GearBall.
+     * @return The number of those squares that differ from their face's center.
+     */
+    protected static int countOutOfPlaceAfter(int move, char[] cells) {
+        return countOutOfPlace(COUNTED_AFTER[move], cells);
+    }
+
+    /**
+     * Counts the gear slots not in state 0 among those a move turns, before the move is made.
+     * Each gear has two slots, and a gear the move does not turn keeps its state wherever it goes.
+     * @param move The simplified move number (0 - 11).
+     * @param gearStates The states of all gear slots, as stored by GearBall.
+     * @return The number of those slots not in state 0.
+     */
+    protected static int countTurnedSlotsNotInStateZeroBefore(int move, int[] gearStates) {
+        return countNotInStateZero(TURNED_SOURCE_SLOTS[move], gearStates);
+    }
+
+    /**
+     * Counts the gear slots not in state 0 among those a move turns, after the move is made.
+     * @param move The simplified move number (0 - 11).
+     * @param gearStates The states of all gear slots, as stored by GearBall.
+     * @return The number of those slots not in state 0.
+     */
+    protected static int countTurnedSlotsNotInStateZeroAfter(int move, int[] gearStates) {
+        return countNotInStateZero(TURNED_SLOTS[move], gearStates);
+    }
+
+    /**
+     * Gets the gear whose state a move carries to a gear position.
+     * @param move The simplified move number (0 - 11).
+     * @param gear The gear position after the move, indexed as in GearBallState.GEARS.
+     * @return The gear position before the move.
+     */
+    public static int getGearSource(int move, int gear) {
+        return GEAR_POSITION_SOURCE[move][gear];
+    }
+
+    /**
+     * Gets how much a move changes the state of the gear it carries to a gear position.
+     * @param move The simplified move number (0 - 11).
+     * @param gear The gear position after the move, indexed as in GearBallState.GEARS.
+     * @return 0 if the gear is not turned, 1 or 5 (-1 modulo 6) if it is.
+     */
+    public static int getGearDelta(int move, int gear) {
+        return GEAR_POSITION_DELTA[move][gear];
+    }
+
+    /**
+     * Checks if a move turns around the gear it carries to a gear position.
+     * @param move The simplified move number (0 - 11).
+     * @param gear The gear position after the move, indexed as in GearBallState.GEARS.
+     * @return true if the gear's first side now shows what was its second side
+     */
+    public static boolean isGearFlipped(int move, int gear) {
+        return GEAR_POSITION_FLIPPED[move][gear];
+    }
+
+    /**
+     * Gets the block whose color a move carries to a block position.
+     * @param move The simplified move number (0 - 11).
+     * @param position The block position after the move, as face * 9 + block.
+     * @return The block position before the move.
+     */
+    public static int getBlockSource(int move, int position) {
+        return BLOCK_SOURCE[move][position];
+    }
+
+    /**
+     * Gets the cell whose color a move carries to a cell. The teeth of the gears a move
+     * turns are also redrawn, so for those cells this is only where the tooth came from.
+     * @param move The simplified move number (0 - 11).
+     * @param cell The cell after the move, as an index into GearBall's cells.
+     * @return The cell before the move.
+     */
+    public static int getCellSource(int move, int cell) {
+        return CELL_SOURCE[move][cell];
+    }
+
+    /**
+     * Finds the colors of the faces in every solved state. Moves can turn the whole gear ball
+     * over, so there are as many solved states as ways to hold it, each with gears in the
+     * positions that match its face colors.
+     * @return The color index (in GearBallState.COLORS order) of every face, for each solved state.
+     */
+    public static int[][] getSolvedOrientations() {
+        ArrayList<int[]> orientations = new ArrayList<>();
+        HashSet<String> seen = new HashSet<>();
+
+        int[] solved = {0, 1, 2, 3, 4, 5};
+        orientations.add(solved);
+        seen.add(Arrays.toString(solved));
+
+        // breadth-first search over the center colors, which always keep their faces solid
+        for (int i = 0; i < orientations.size(); i++) {
+            int[] faceColors = orientations.get(i);
+
+            for (int move = 0; move < NUM_MOVES; move++) {
+                int[] next = new int[faceColors.length];
+
+                for (int face = 0; face < faceColors.length; face++) {
+                    int source = getCellSource(move, face * GearBallFace.NUM_CELLS + CENTER_CELL);
+                    next[face] = faceColors[source / GearBallFace.NUM_CELLS];
+                }
+
+                if (seen.add(Arrays.toString(next)))
+                    orientations.add(next);
+            }
+        }
+
+        return orientations.toArray(new int[0][]);
+    }
+
+    /**
+     * Gets the move that undoes a move. The simplified moves come in pairs that turn the
+     * same layers in opposite directions: 0 and 1, 2 and 3, and so on.
+     * @param move The simplified move number (0 - 11).
+     * @return The simplified move number of the inverse move.
+     */
+    public static int inverse(int move) {
+        return move ^ 1;
+    }
+
+    /**
+     * Checks the move tables against the hand-written rotation methods of GearBall: every
+     * move from the solved configuration, then a number of random move sequences.
+     * @param seed Seed for the random move sequences.
+     * @param numSequences Number of random sequences to check.
+     * @param sequenceLength Number of moves in each sequence.
+     * @return true if every configuration matched, false otherwise
+     */
+    public static boolean verify(long seed, int numSequences, int sequenceLength) {
+        for (int move = 0; move < NUM_MOVES; move++) {
+            GearBall fromTable = new GearBall();
+            GearBall fromReference = new GearBall();
+
+            fromTable.rotate(move);
+            fromReference.rotateReference(move);
+
+            if (!fromTable.hasSameConfiguration(fromReference)) return false;
+
+            // the inverse move must take the gear ball back to solved
+            fromTable.rotate(inverse(move));
+            if (!fromTable.hasSameConfiguration(new GearBall())) return false;
+        }
+
+        Random random = new Random(seed);
+
+        for (int sequence = 0; sequence < numSequences; sequence++) {
+            GearBall fromTable = new GearBall();
+            GearBall fromReference = new GearBall();
+
+            for (int i = 0; i < sequenceLength; i++) {
+                int move = random.nextInt(NUM_MOVES);
+
+                fromTable.rotate(move);
+                fromReference.rotateReference(move);
+
+                if (!fromTable.hasSameConfiguration(fromReference)) return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Builds the tables for one move by running the hand-written rotation on a gear ball
+     * whose cells are all labelled differently and following where each label ends up.
+     * @param move The simplified move number (0 - 11).
+     */
+    private static void buildMove(int move) {
+        GearBall labelled = new GearBall();
+        GearBallFace[] faces = labelled.getFaces();
+
+        for (int cell = 0; cell < GearBall.NUM_CELLS; cell++) {
+            faces[faceOf(cell)].setColor(rowOf(cell), columnOf(cell), (char) (FIRST_LABEL + cell));
+        }
+
+        labelled.rotateReference(move);
+
+        // where each cell came from, and where the label of each cell that is not a gear
+        // tooth ended up; teeth may have been repainted with the labels of other cells
+        int[] cellSource = new int[GearBall.NUM_CELLS];
+        int[] labelDestination = new int[GearBall.NUM_CELLS];
+        for (int cell = 0; cell < GearBall.NUM_CELLS; cell++) {
+            int label = faces[faceOf(cell)].getColor(rowOf(cell), columnOf(cell)) - FIRST_LABEL;
+            cellSource[cell] = label;
+            if (!isTooth(cell))
+                labelDestination[label] = cell;
+        }
+
+        // a gear slot moves with the cell next to it that shows the face's own color, which
+        // the turned gears do not overwrite; the state of every gear started at 0, so any
+        // slot that is no longer in state 0 was turned by the move
+        int[] gearSource = new int[GearBall.NUM_GEAR_SLOTS];
+        int[] gearDelta = new int[GearBall.NUM_GEAR_SLOTS];
+        int numTurned = 0;
+        for (int slot = 0; slot < GearBall.NUM_GEAR_SLOTS; slot++) {
+            int destination = slotOf(labelDestination[colorCell(slot)]);
+            gearSource[destination] = slot;
+        }
+        for (int slot = 0; slot < GearBall.NUM_GEAR_SLOTS; slot++) {
+            gearDelta[slot] = faces[slot / 4].getGearState(slot % 4);
+            if (gearDelta[slot] != 0) numTurned++;
+        }
+
+        // the teeth of a turned gear were repainted by the hand-written move, so their labels
+        // are lost; they move tooth for tooth with the rest of the gear and are redrawn after
+        TURNED_SLOTS[move] = new int[numTurned];
+        OWN_COLOR_CELLS[move] = new int[numTurned];
+        ADJ_COLOR_CELLS[move] = new int[numTurned];
+        TOOTH_CELLS[move] = new int[numTurned * 4];
+        int turned = 0;
+        for (int slot = 0; slot < GearBall.NUM_GEAR_SLOTS; slot++) {
+            if (gearDelta[slot] == 0) continue;
+
+            TURNED_SLOTS[move][turned] = slot;
+            OWN_COLOR_CELLS[move][turned] = colorCell(slot);
+            ADJ_COLOR_CELLS[move][turned] = colorCell(ADJACENT_SLOT[slot]);
+            for (int tooth = 0; tooth < 4; tooth++) {
+                int toothCell = toothCell(slot, tooth);
+                cellSource[toothCell] = toothCell(gearSource[slot], tooth);
+                TOOTH_CELLS[move][turned * 4 + tooth] = toothCell;
+            }
+            turned++;
+        }
+
+        for (int gear = 0; gear < GearBallState.NUM_GEARS; gear++) {
+            int slot = GearBallState.GEARS[gear][0] * 4 + GearBallState.GEARS[gear][1];
+            int sourceGear = GEAR_OF_SLOT[gearSource[slot]];
+            int sourceSlot = GearBallState.GEARS[sourceGear][0] * 4 + GearBallState.GEARS[sourceGear][1];
+            GEAR_POSITION_SOURCE[move][gear] = sourceGear;
+            GEAR_POSITION_DELTA[move][gear] = gearDelta[slot];
+            GEAR_POSITION_FLIPPED[move][gear] = gearSource[slot] != sourceSlot;
+        }
+
+        CELL_SOURCE[move] = cellSource;
+
+        CELL_CYCLES[move] = toCycles(cellSource, null);
+        GEAR_CYCLES[move] = toCycles(gearSource, gearDelta);
+        GEAR_DELTAS[move] = new int[GEAR_CYCLES[move].length];
+
+        // line the deltas up with the positions of their slots in the cycle list
+        int[] cycles = GEAR_CYCLES[move];
+        for (int i = 0; i < cycles.length; ) {
+            int length = cycles[i++];
+            for (int end = i + length; i < end; i++)
+                GEAR_DELTAS[move][i] = gearDelta[cycles[i]];
+        }
+    }
+
+    /**
+     * Finds the counted squares whose comparison with their face's center a move changes.
+     * A square keeps its comparison when it comes from a counted square and its center
+     * comes from that square's center; the move only carries those comparisons elsewhere.
+     * @param move The simplified move number (0 - 11).
+     */
+    private static void buildCountedSquares(int move) {
+        boolean[] isCounted = new boolean[GearBall.NUM_CELLS];
+        for (int square : COUNTED_SQUARES)
+            isCounted[square] = true;
+
+        // counted squares whose comparison arrives from elsewhere, and where it came from
+        boolean[] carried = new boolean[GearBall.NUM_CELLS];
+        boolean[] carriedFrom = new boolean[GearBall.NUM_CELLS];
+        for (int square : COUNTED_SQUARES) {
+            int source = CELL_SOURCE[move][square];
+            int center = cellIndex(faceOf(square), 4, 4);
+
+            if (isCounted[source] && CELL_SOURCE[move][center] == cellIndex(faceOf(source), 4, 4)) {
+                carried[square] = true;
+                carriedFrom[source] = true;
+            }
+        }
+
+        int[] before = new int[COUNTED_SQUARES.length * 2];
+        int[] after = new int[COUNTED_SQUARES.length * 2];
+        int numBefore = 0;
+        int numAfter = 0;
+        for (int square : COUNTED_SQUARES) {
+            int center = faceOf(square) * GearBallFace.NUM_CELLS + CENTER_CELL;
+
+            if (!carriedFrom[square]) {
+                before[numBefore++] = square;
+                before[numBefore++] = center;
+            }
+            if (!carried[square]) {
+                after[numAfter++] = square;
+                after[numAfter++] = center;
+            }
+        }
+
+        COUNTED_BEFORE[move] = Arrays.copyOf(before, numBefore);
+        COUNTED_AFTER[move] = Arrays.copyOf(after, numAfter);
+
+        TURNED_SOURCE_SLOTS[move] = new int[TURNED_SLOTS[move].length];
+        int[] cycles = GEAR_CYCLES[move];
+        for (int i = 0; i < cycles.length; ) {
+            int length = cycles[i++];
+            int end = i + length;
+
+            // each slot in a cycle takes its state from the next one, and the last from the first
+            for (int j = i; j < end; j++) {
+                int source = (j + 1 < end) ? cycles[j + 1] : cycles[i];
+
+                for (int t = 0; t < TURNED_SLOTS[move].length; t++) {
+                    if (TURNED_SLOTS[move][t] == cycles[j])
+                        TURNED_SOURCE_SLOTS[move][t] = source;
+                }
+            }
+            i = end;
+        }
+    }
+
+    /**
+     * Counts the squares in a list that differ from their face's center.
+     * @param squares Each square followed by its face's center.
+     */
+    private static int countOutOfPlace(int[] squares, char[] cells) {
+        int count = 0;
+
+        for (int i = 0; i < squares.length; i += 2) {
+            if (cells[squares[i]] != cells[squares[i + 1]])
+                count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Counts the gear slots in a list that are not in state 0.
+     */
+    private static int countNotInStateZero(int[] slots, int[] gearStates) {
+        int count = 0;
+
+        for (int slot : slots) {
+            if (gearStates[slot] != 0)
+                count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Splits a permutation into cycles, skipping the entries that stay where they are
+     * unless they also have a non-zero delta.
+     * @param source source[i] is the index whose value moves to i.
+     * @param delta Change applied to each entry once moved, or null.
+     * @return The cycles, each written as its length followed by its entries.
+     */
+    private static int[] toCycles(int[] source, int[] delta) {
+        boolean[] visited = new boolean[source.length];
+        int[] cycles = new int[source.length * 2];
+        int size = 0;
+
+        for (int start = 0; start < source.length; start++) {
+            if (visited[start]) continue;
+            if (source[start] == start && (delta == null || delta[start] == 0)) continue;
+
+            int lengthIndex = size++;
+            int index = start;
+            do {
+                if (visited[index]) {
+                    System.err.println("GearBallMoveTable: error - Move does not permute the gear ball");
+                    System.exit(1);
+                }
+                visited[index] = true;
+                cycles[size++] = index;
+                index = source[index];
+            } while (index != start);
+            cycles[lengthIndex] = size - lengthIndex - 1;
+        }
+
+        int[] trimmed = new int[size];
+        System.arraycopy(cycles, 0, trimmed, 0, size);
+        return trimmed;
+    }
+
+    /**
+     * Gets the cell next to a gear slot that always shows the color of the slot's face.
+     * @param slot The gear slot (face * 4 + gearNumber).
+     * @return The index of the cell.
+     */
+    private static int colorCell(int slot) {
+        int[] coordinates = GearBallFace.GEARCOLORCOORDINATES[slot % 4];
+        return cellIndex(slot / 4, coordinates[0], coordinates[1]);
+    }
+
+    /**
+     * Gets one of the four tooth cells of a gear slot.
+     * @param slot The gear slot (face * 4 + gearNumber).
+     * @param tooth The tooth (0 - 3), in GearBallFace.GEARCOORDINATES order.
+     * @return The index of the cell.
+     */
+    private static int toothCell(int slot, int tooth) {
+        int[] coordinates = GearBallFace.GEARCOORDINATES[slot % 4][tooth];
+        return cellIndex(slot / 4, coordinates[0], coordinates[1]);
+    }
+
+    /**
+     * Gets the gear slot of the edge block a cell lies in.
+     * @param cell The index of the cell.
+     * @return The gear slot (face * 4 + gearNumber).
+     */
+    private static int slotOf(int cell) {
+        int block = (rowOf(cell) / 3) * 3 + columnOf(cell) / 3;
+
+        for (int gear = 0; gear < 4; gear++) {
+            if (GEAR_BLOCK[gear] == block)
+                return faceOf(cell) * 4 + gear;
+        }
+
+        System.err.println("GearBallMoveTable: error - Gear color cell moved out of an edge block: " + cell);
+        System.exit(1);
+        return -1;
+    }
+
+    /**
+     * Checks if a cell is one of the teeth of a gear.
+     * @param cell The index of the cell.
+     * @return true if the cell is a gear tooth, false otherwise
+     */
+    private static boolean isTooth(int cell) {
+        for (int[][] gear : GearBallFace.GEARCOORDINATES) {
+            for (int[] coordinates : gear) {
+                if (rowOf(cell) == coordinates[0] && columnOf(cell) == coordinates[1])
+                    return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static int cellIndex(int face, int row, int column) {
+        return face * GearBallFace.NUM_CELLS + row * GearBallFace.SIZE + column;
+    }
+
+    private static int faceOf(int cell) {
+        return cell / GearBallFace.NUM_CELLS;
+    }
+
+    private static int rowOf(int cell) {
+        return (cell % GearBallFace.NUM_CELLS) / GearBallFace.SIZE;
+    }
+
+    private static int columnOf(int cell) {
+        return cell % GearBallFace.SIZE;
+    }
+}
@@ -5,6 +5,8 @@
  * Purpose          A class that handles randomization of gear ball configuration.
  */
 
+package gearball;
+
 import java.util.Random;
 import java.util.Scanner;
 
@@ -13,14 +15,73 @@ public class GearBallRandomizer {
     // number of move types available
     private static final int NUM_MOVE_TYPES = 24;
 
-    // integer representation previous move
-    private static int previousMove;
-
-    private static int numTimesSameColRotated = 0;
+    // the most times in a row the same column may be rotated the same way
+    private static final int MAX_SAME_ROTATIONS = 5;
 
     public GearBallRandomizer() {
     }
 
+    /**
+     * Puts a gear ball into a random configuration without printing anything. The same seed
+     * and depth always give the same scramble, and this may be called from many threads at once.
+     * @param gearBall The GearBall instance; it is scrambled from whatever configuration it is in.
+     * @param seed Seed for the random moves.
+     * @param depth The number of random moves to make.
+     */
+    public static void scramble(GearBall gearBall, long seed, int depth) {
+        int[] moves = scramble(seed, depth);
+
+        for (int move : moves)
+            gearBall.rotate(move);
+    }
+
+    /**
+     * Picks the moves of a random scramble without printing anything.
+     * @param seed Seed for the random moves.
+     * @param depth The number of random moves to pick.
+     * @return The simplified move numbers (0 - 11) in the order they are made.
+     */
+    public static int[] scramble(long seed, int depth) {
+        return scramble(new Random(seed), depth, new int[depth]);
+    }
+
+    /**
+     * Picks the moves of a random scramble into an existing array, so that many scrambles can
+     * be made from one random number generator without allocating. Follows the same rules as
+     * randomize: no move undoes the one before it, and no column is rotated the same way more
+     * than five times in a row.
+     * @param random The random number generator; it must not be shared with other threads.
+     * @param depth The number of random moves to pick.
+     * @param moves Receives the simplified move numbers (0 - 11); at least depth long.
+     * @return moves
+     */
+    public static int[] scramble(Random random, int depth, int[] moves) {
+        if (depth < 0 || moves.length < depth) {
+            System.err.println("GearBallRandomizer: error - Invalid scramble depth: " + depth);
+            System.exit(1);
+        }
+
+        int previousMove = -1;
+        int numTimesSameColRotated = 0;
+
+        for (int i = 0; i < depth; i++) {
+            int move = random.nextInt(NUM_MOVE_TYPES);
+
+            if (previousMove >= 0) {
+                while (isInverse(previousMove, move)
+                        || countSameRotations(previousMove, move, numTimesSameColRotated) > MAX_SAME_ROTATIONS) {
+                    move = random.nextInt(NUM_MOVE_TYPES);
+                }
+                numTimesSameColRotated = countSameRotations(previousMove, move, numTimesSameColRotated);
+            }
+
+            moves[i] = GearBall.SIMPLIFIED_MOVE_NUM[move];
+            previousMove = move;
+        }
+
+        return moves;
+    }
+
     /**
      * Put the gear ball into a random configuration
      */
@@ -45,6 +106,11 @@ public class GearBallRandomizer {
 
             numMoves = Integer.parseInt(input);
 
+            // integer representation of the previous move, and how many times in a row the
+            // same column has been rotated the same way
+            int previousMove = -1;
+            int numTimesSameColRotated = 0;
+
             // tell user how many random moves are being made
             System.out.println("Making " + numMoves + " random rotations...\n");
 
@@ -56,10 +122,12 @@ public class GearBallRandomizer {
                 if (i != 0) {
                     // then check to make sure the move is not an inverse of
                     // the previous move
-                    while (isInverse(move) || moveMadeFiveTimes(move)) {
+                    while (isInverse(previousMove, move)
+                            || countSameRotations(previousMove, move, numTimesSameColRotated) > MAX_SAME_ROTATIONS) {
                         // change move if it is an inverse of previous move
                         move = random.nextInt(NUM_MOVE_TYPES);
                     }
+                    numTimesSameColRotated = countSameRotations(previousMove, move, numTimesSameColRotated);
                 }
 
                 // do the movement represented by move
@@ -112,14 +180,27 @@ public class GearBallRandomizer {
         doMove(gearBall, 1);
         System.out.println("\nAfter undoing the initial sequence: \n");
         gearBall.printGearBall();
+
+        // check the move tables used by rotate() against the hand-written moves
+        // the seed is printed so that a failure can be repeated
+        long seed = System.currentTimeMillis();
+        System.out.println("\nChecking every move against the hand-written rotations (seed " + seed + ")...");
+        if (GearBallMoveTable.verify(seed, 1000, 50)) {
+            System.out.println("All 12 moves and 1000 random sequences of 50 moves match.");
+        } else {
+            System.out.println("The move tables do NOT match the hand-written rotations!");
+        }
     }
 
     /**
-     * Checks if the same move has been made 5 times.
+     * Counts how many times in a row the same column will have been rotated the same way
+     * once a move is made.
+     * @param previousMove The move made before this one.
      * @param move The current move to check against previous move.
-     * @return true if move has been made 5 times, false otherwise
+     * @param numTimesSameColRotated The count before this move.
+     * @return The count after this move.
      */
-    private static boolean moveMadeFiveTimes(int move) {
+    private static int countSameRotations(int previousMove, int move, int numTimesSameColRotated) {
         String[] currMoveParams = GearBall.MOVES.get(move);
         String[] prevMoveParams = GearBall.MOVES.get(previousMove);
 
@@ -133,17 +214,12 @@ public class GearBallRandomizer {
 
         if (currHeld.equals("middle") && prevHeld.equals("middle")) {
             if (currRotated.equals(prevRotated) && currDirection.equals(prevDirection))
-                numTimesSameColRotated++;
+                return numTimesSameColRotated + 1;
+            return numTimesSameColRotated;
         } else if (currHeld.equals(prevHeld) && currDirection.equals(prevDirection)) {
-            numTimesSameColRotated++;
+            return numTimesSameColRotated + 1;
         } else {
-            numTimesSameColRotated = 0;
-        }
-
-        if (numTimesSameColRotated > 5) {
-            return true;
-        } else {
-            return false;
+            return 0;
         }
     }
 
@@ -190,10 +266,11 @@ public class GearBallRandomizer {
 
     /**
      * Checks to see if this move undoes the previous move
+     * @param previousMove The integer representing the move made before this one.
      * @param move The integer representing the move number.
      * @return true if move will undo previousMove, false if not
      */
-    private static boolean isInverse(int move) {
+    private static boolean isInverse(int previousMove, int move) {
         switch (previousMove) {
             case 0:
                 if (move == 1 || move == 3)
@@ -0,0 +1,447 @@
+/**
+ * File Name        GearBallState.java
+ * Purpose          A compact, canonical encoding of a gear ball configuration packed into four longs.
+ */
+
+package gearball;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public final class GearBallState implements Comparable<GearBallState> {
+    // number of gears on the gear ball and number of states each gear can be in
+    public static final int NUM_GEARS = 12;
+    public static final int NUM_GEAR_STATES = 6;
+
+    // every face is made up of a 3x3 grid of blocks, each of which shows a single color
+    // apart from the teeth of the gears
+    protected static final int BLOCKS_PER_FACE = 9;
+    private static final int BITS_PER_VALUE = 3;
+    private static final int BITS_PER_FACE = BLOCKS_PER_FACE * BITS_PER_VALUE;
+    private static final long VALUE_MASK = (1L << BITS_PER_VALUE) - 1;
+    // the block of every face at its center
+    private static final int CENTER_BLOCK = 4;
+
+    // colors indexed in the same order as the faces of GearBall (top, bottom, left, right, front, back)
+    protected static final char[] COLORS = {'G', 'B', 'P', 'R', 'Y', 'O'};
+
+    // a cell of each block that always shows the block's color (never a gear tooth), in
+    // row-major block order; the edge blocks use the same cells as GearBallFace.getGearColors
+    protected static final int[][] BLOCK_CELLS = {
+            {1, 1}, {1, 3}, {1, 7},
+            {3, 1}, {4, 4}, {3, 7},
+            {7, 1}, {7, 3}, {7, 7}
+    };
+
+    // the block that holds each of the four gears of a face
+    private static final int[] GEAR_BLOCK = {1, 5, 7, 3};
+
+    // the two sides of each gear as {face, gearNumber, adjacent face, adjacent gearNumber},
+    // with faces indexed as in GearBall.getFaces(); ordered as in GearBall.getNumGearsNotInStateZero
+    protected static final int[][] GEARS = {
+            {0, 0, 5, 2},
+            {0, 3, 2, 0},
+            {0, 1, 3, 0},
+            {0, 2, 4, 0},
+            {2, 3, 5, 3},
+            {2, 1, 4, 3},
+            {3, 3, 4, 1},
+            {3, 1, 5, 1},
+            {2, 2, 1, 3},
+            {4, 2, 1, 0},
+            {3, 2, 1, 1},
+            {1, 2, 5, 0}
+    };
+
+    // for each gear state, whether each tooth of a gear (in GearBallFace.GEARCOORDINATES order)
+    // shows the color of the adjacent face rather than its own; mirrors GearBallFace.gearToState
+    protected static final boolean[][] TOOTH_SHOWS_ADJACENT = {
+            {false, false, false, false},
+            {true, false, false, false},
+            {true, true, false, true},
+            {true, true, true, true},
+            {false, true, true, true},
+            {false, false, true, false}
+    };
+
+    // top and bottom, left and right, front and back block colors, two faces per word
+    private final long faces01;
+    private final long faces23;
+    private final long faces45;
+    // the state of each of the twelve gears
+    private final long gears;
+
+    /**
+     * Constructor for GearBallState. Encodes the given configuration.
+     * @param gearBall The gear ball to encode.
+     */
+    public GearBallState(GearBall gearBall) {
+        GearBallFace[] faces = gearBall.getFaces();
+
+        this.faces01 = packFace(faces[0]) | (packFace(faces[1]) << BITS_PER_FACE);
+        this.faces23 = packFace(faces[2]) | (packFace(faces[3]) << BITS_PER_FACE);
+        this.faces45 = packFace(faces[4]) | (packFace(faces[5]) << BITS_PER_FACE);
+
+        long packedGears = 0;
+        for (int gear = 0; gear < NUM_GEARS; gear++) {
+            int state = faces[GEARS[gear][0]].getGearState(GEARS[gear][1]);
+            packedGears |= (long) state << (gear * BITS_PER_VALUE);
+        }
+        this.gears = packedGears;
+    }
+
+    /**
+     * Constructor for GearBallState from its packed words.
+     */
+    private GearBallState(long faces01, long faces23, long faces45, long gears) {
+        this.faces01 = faces01;
+        this.faces23 = faces23;
+        this.faces45 = faces45;
+        this.gears = gears;
+    }
+
+    /**
+     * Parses a state written by toString.
+     * @param text The 64 hex digits of the state.
+     * @return The state, or null if the text is not a valid state.
+     */
+    public static GearBallState fromString(String text) {
+        if (text.length() != 64) return null;
+
+        long[] words = new long[4];
+        try {
+            for (int i = 0; i < words.length; i++)
+                words[i] = Long.parseUnsignedLong(text.substring(i * 16, i * 16 + 16), 16);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        // every block color and gear state must be in range, and nothing set above them
+        for (int i = 0; i < 3; i++) {
+            if ((words[i] >>> (2 * BITS_PER_FACE)) != 0) return null;
+            for (int block = 0; block < 2 * BLOCKS_PER_FACE; block++) {
+                if (((words[i] >>> (block * BITS_PER_VALUE)) & VALUE_MASK) >= COLORS.length) return null;
+            }
+        }
+        if ((words[3] >>> (NUM_GEARS * BITS_PER_VALUE)) != 0) return null;
+        for (int gear = 0; gear < NUM_GEARS; gear++) {
+            if (((words[3] >>> (gear * BITS_PER_VALUE)) & VALUE_MASK) >= NUM_GEAR_STATES) return null;
+        }
+
+        return new GearBallState(words[0], words[1], words[2], words[3]);
+    }
+
+    /**
+     * Checks that this state describes a gear ball: every color on nine blocks, and the two
+     * sides of every gear position showing the colors of one of the twelve gears, with each
+     * gear in exactly one position. fromString only checks that each value is in range. A
+     * consistent state is not always reachable by moves from the solved gear ball.
+     * @return true if the blocks and gears are consistent, false otherwise
+     */
+    public boolean isConsistent() {
+        long[] words = {faces01, faces23, faces45};
+        int[] colorCounts = new int[COLORS.length];
+
+        for (int position = 0; position < COLORS.length * BLOCKS_PER_FACE; position++)
+            colorCounts[getBlock(words, position)]++;
+
+        for (int count : colorCounts) {
+            if (count != BLOCKS_PER_FACE) return false;
+        }
+
+        boolean[] placed = new boolean[NUM_GEARS];
+
+        for (int position = 0; position < NUM_GEARS; position++) {
+            int color = getBlock(words, GEARS[position][0] * BLOCKS_PER_FACE + GEAR_BLOCK[GEARS[position][1]]);
+            int adjColor = getBlock(words, GEARS[position][2] * BLOCKS_PER_FACE + GEAR_BLOCK[GEARS[position][3]]);
+            int gear = gearOfColors(color, adjColor);
+
+            if (gear < 0 || placed[gear]) return false;
+            placed[gear] = true;
+        }
+
+        return true;
+    }
+
+    /**
+     * Writes the four packed words of this state, 32 bytes in all.
+     * @param out Where to write the state.
+     * @throws IOException If the state cannot be written.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(faces01);
+        out.writeLong(faces23);
+        out.writeLong(faces45);
+        out.writeLong(gears);
+    }
+
+    /**
+     * Reads a state written by write.
+     * @param in Where to read the state from.
+     * @return The state.
+     * @throws IOException If the state cannot be read.
+     */
+    public static GearBallState read(DataInput in) throws IOException {
+        return new GearBallState(in.readLong(), in.readLong(), in.readLong(), in.readLong());
+    }
+
+    /**
+     * Decodes this state into a new GearBall.
+     * @return A GearBall in this configuration.
+     */
+    public GearBall toGearBall() {
+        GearBall gearBall = new GearBall();
+        writeTo(gearBall);
+        return gearBall;
+    }
+
+    /**
+     * Overwrites the configuration of an existing GearBall with this state.
+     * @param gearBall The gear ball to write into.
+     */
+    public void writeTo(GearBall gearBall) {
+        GearBallFace[] faces = gearBall.getFaces();
+
+        unpackFace(faces[0], faces01);
+        unpackFace(faces[1], faces01 >>> BITS_PER_FACE);
+        unpackFace(faces[2], faces23);
+        unpackFace(faces[3], faces23 >>> BITS_PER_FACE);
+        unpackFace(faces[4], faces45);
+        unpackFace(faces[5], faces45 >>> BITS_PER_FACE);
+
+        // with every block painted a solid color, draw the teeth of each gear on both of its faces
+        for (int gear = 0; gear < NUM_GEARS; gear++) {
+            int state = getGearState(gear);
+            GearBallFace face = faces[GEARS[gear][0]];
+            GearBallFace adjFace = faces[GEARS[gear][2]];
+            int gearNum = GEARS[gear][1];
+            int adjGearNum = GEARS[gear][3];
+            char color = blockColor(face, GEAR_BLOCK[gearNum]);
+            char adjColor = blockColor(adjFace, GEAR_BLOCK[adjGearNum]);
+
+            for (int tooth = 0; tooth < 4; tooth++) {
+                boolean swapped = TOOTH_SHOWS_ADJACENT[state][tooth];
+                int[] cell = GearBallFace.GEARCOORDINATES[gearNum][tooth];
+                int[] adjCell = GearBallFace.GEARCOORDINATES[adjGearNum][tooth];
+
+                face.setColor(cell[0], cell[1], swapped ? adjColor : color);
+                adjFace.setColor(adjCell[0], adjCell[1], swapped ? color : adjColor);
+            }
+
+            face.setGearState(gearNum, state);
+            adjFace.setGearState(adjGearNum, state);
+        }
+
+        gearBall.clearCachedKeys();
+    }
+
+    /**
+     * Gets the state of one of the twelve gears.
+     * @param gear The gear number, indexed as in GEARS.
+     * @return The state of the gear (0 - 5).
+     */
+    public int getGearState(int gear) {
+        return (int) ((gears >>> (gear * BITS_PER_VALUE)) & VALUE_MASK);
+    }
+
+    /**
+     * Checks if this state is solved: every face a single color and every gear in state 0.
+     * @return true if solved, false otherwise
+     */
+    public boolean isSolved() {
+        return gears == 0 && isFaceSolid(faces01) && isFaceSolid(faces01 >>> BITS_PER_FACE)
+                && isFaceSolid(faces23) && isFaceSolid(faces23 >>> BITS_PER_FACE)
+                && isFaceSolid(faces45) && isFaceSolid(faces45 >>> BITS_PER_FACE);
+    }
+
+    /**
+     * Computes a well-mixed 64-bit hash of this state, used as a fingerprint by the searches.
+     * @return The 64-bit hash.
+     */
+    public long longHash() {
+        long hash = mix(faces01);
+        hash = mix(hash ^ faces23);
+        hash = mix(hash ^ faces45);
+        return mix(hash ^ gears);
+    }
+
+    /**
+     * Builds the state a symmetry turns this state into: the blocks and gears are moved by
+     * the given tables, then the colors are renamed so that each center shows its face's
+     * solved color.
+     * @param blockSource The block position (face * 9 + block) each block position takes its color from.
+     * @param gearSource The gear position each gear position takes its state from.
+     * @param gearDelta How much each gear position's state changes.
+     * @return The symmetric state.
+     */
+    protected GearBallState transform(int[] blockSource, int[] gearSource, int[] gearDelta) {
+        long[] words = {faces01, faces23, faces45};
+        long[] turned = new long[words.length];
+        int[] recolor = new int[COLORS.length];
+
+        for (int face = 0; face < COLORS.length; face++)
+            recolor[getBlock(words, blockSource[face * BLOCKS_PER_FACE + CENTER_BLOCK])] = face;
+
+        for (int position = 0; position < COLORS.length * BLOCKS_PER_FACE; position++) {
+            long color = recolor[getBlock(words, blockSource[position])];
+            turned[position / (2 * BLOCKS_PER_FACE)] |= color << ((position % (2 * BLOCKS_PER_FACE)) * BITS_PER_VALUE);
+        }
+
+        long packedGears = 0;
+        for (int gear = 0; gear < NUM_GEARS; gear++) {
+            long state = (getGearState(gearSource[gear]) + gearDelta[gear]) % NUM_GEAR_STATES;
+            packedGears |= state << (gear * BITS_PER_VALUE);
+        }
+
+        return new GearBallState(turned[0], turned[1], turned[2], packedGears);
+    }
+
+    /**
+     * Orders states by their packed words, so that a set of states has a smallest one.
+     */
+    @Override
+    public int compareTo(GearBallState other) {
+        if (faces01 != other.faces01) return Long.compare(faces01, other.faces01);
+        if (faces23 != other.faces23) return Long.compare(faces23, other.faces23);
+        if (faces45 != other.faces45) return Long.compare(faces45, other.faces45);
+        return Long.compare(gears, other.gears);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof GearBallState)) return false;
+
+        GearBallState that = (GearBallState) other;
+        return faces01 == that.faces01 && faces23 == that.faces23
+                && faces45 == that.faces45 && gears == that.gears;
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = longHash();
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x%016x%016x", faces01, faces23, faces45, gears);
+    }
+
+    /**
+     * Finds the gear whose sides are a pair of colors. In the solved gear ball each side of a
+     * gear shows the color of its face, and the colors are indexed in the same order as the faces.
+     * @param color The color index of one side.
+     * @param adjColor The color index of the other side.
+     * @return The gear number, indexed as in GEARS, or -1 if no gear has those colors.
+     */
+    private static int gearOfColors(int color, int adjColor) {
+        for (int gear = 0; gear < NUM_GEARS; gear++) {
+            if ((GEARS[gear][0] == color && GEARS[gear][2] == adjColor)
+                    || (GEARS[gear][0] == adjColor && GEARS[gear][2] == color))
+                return gear;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Reads the color index of a block from the packed words.
+     * @param words The packed words of faces 0 and 1, 2 and 3, 4 and 5.
+     * @param position The block position, as face * 9 + block.
+     */
+    private static int getBlock(long[] words, int position) {
+        return (int) ((words[position / (2 * BLOCKS_PER_FACE)] >>> ((position % (2 * BLOCKS_PER_FACE)) * BITS_PER_VALUE))
+                & VALUE_MASK);
+    }
+
+    /**
+     * Packs the block colors of a face into the low 27 bits of a long.
+     * @param face The face to pack.
+     * @return The packed block colors.
+     */
+    private static long packFace(GearBallFace face) {
+        long packed = 0;
+
+        for (int block = 0; block < BLOCKS_PER_FACE; block++) {
+            long color = colorIndex(blockColor(face, block));
+            packed |= color << (block * BITS_PER_VALUE);
+        }
+
+        return packed;
+    }
+
+    /**
+     * Checks if every block of a packed face has the same color.
+     * @param packed The packed block colors in the low 27 bits.
+     * @return true if the face is a single color, false otherwise
+     */
+    private static boolean isFaceSolid(long packed) {
+        long first = packed & VALUE_MASK;
+
+        for (int block = 1; block < BLOCKS_PER_FACE; block++) {
+            if (((packed >>> (block * BITS_PER_VALUE)) & VALUE_MASK) != first)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Paints every block of a face with its packed color, including the gear teeth.
+     * @param face The face to paint.
+     * @param packed The packed block colors in the low 27 bits.
+     */
+    private static void unpackFace(GearBallFace face, long packed) {
+        for (int block = 0; block < BLOCKS_PER_FACE; block++) {
+            char color = COLORS[(int) ((packed >>> (block * BITS_PER_VALUE)) & VALUE_MASK)];
+            int startRow = (block / 3) * 3;
+            int startCol = (block % 3) * 3;
+
+            for (int row = startRow; row < startRow + 3; row++) {
+                for (int col = startCol; col < startCol + 3; col++) {
+                    face.setColor(row, col, color);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the color of a block on a face.
+     * @param face The face.
+     * @param block The block number in row-major order (0 - 8).
+     * @return The char representing the color of the block.
+     */
+    protected static char blockColor(GearBallFace face, int block) {
+        return face.getColor(BLOCK_CELLS[block][0], BLOCK_CELLS[block][1]);
+    }
+
+    /**
+     * Maps a color to its index in COLORS.
+     * @param color The char representing the color.
+     * @return The index of the color.
+     */
+    protected static int colorIndex(char color) {
+        for (int i = 0; i < COLORS.length; i++) {
+            if (COLORS[i] == color)
+                return i;
+        }
+
+        System.err.println("GearBallState: error - Invalid color: " + color);
+        System.exit(1);
+        return -1;
+    }
+
+    /**
+     * Finalization step of a 64-bit hash (MurmurHash3 fmix64).
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ * File Name        GearBallStateSampler.java
+ * Purpose          Draws random gear ball states from close to a uniform distribution over every
+ *                  reachable state, and writes them in bulk to a binary file.
+ */
+
+package gearball;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class GearBallStateSampler {
+    // moves made before the first sample, and by default between samples; the distance
+    // distributions given by the pattern databases stop changing after about ten steps
+    public static final int DEFAULT_BURN_IN_MOVES = 1000;
+    public static final int DEFAULT_MIXING_MOVES = 30;
+
+    // identifies the file format: a header of MAGIC, VERSION and the number of states,
+    // then each state as written by GearBallState.write
+    public static final int MAGIC = 0x47425353;
+    public static final int VERSION = 1;
+
+    // states drawn by each walk in main; each walk pays for its burn-in once, so this keeps
+    // that to well under one percent of the moves made
+    private static final int CHUNK_STATES = 10000;
+
+    // random number generator driving the walk
+    private SplittableRandom random;
+    // the gear ball the walk is made on
+    private GearBall gearBall = new GearBall();
+    // moves made between samples
+    private int mixingMoves;
+    // whether the burn-in moves have been made yet
+    private boolean burnedIn = false;
+
+    /**
+     * Constructor for GearBallStateSampler
+     * @param seed Seed for the random walk; the same seed always gives the same states.
+     * @param mixingMoves The number of random steps taken between samples.
+     */
+    public GearBallStateSampler(long seed, int mixingMoves) {
+        if (mixingMoves < 1) {
+            System.err.println("GearBallStateSampler: error - Invalid number of mixing moves: " + mixingMoves);
+            System.exit(1);
+        }
+
+        this.random = new SplittableRandom(seed);
+        this.mixingMoves = mixingMoves;
+    }
+
+    /**
+     * Draws the next state. The states are visited by one long random walk over the twelve
+     * distinct moves, each step making a move chosen uniformly or, one time in thirteen,
+     * standing still. Every move's inverse is also a move, so the walk is equally likely to
+     * end anywhere in the reachable states once it has run long enough, and standing still
+     * now and then keeps it from alternating between two halves of them. A walk from solved
+     * of the length randomize uses instead stays close to solved.
+     * @return The state the walk is at after another mixingMoves steps.
+     */
+    public GearBallState next() {
+        if (!burnedIn) {
+            walk(DEFAULT_BURN_IN_MOVES);
+            burnedIn = true;
+        }
+
+        walk(mixingMoves);
+        return gearBall.getState();
+    }
+
+    /**
+     * Takes steps of the random walk.
+     * @param numSteps The number of steps to take.
+     */
+    private void walk(int numSteps) {
+        for (int i = 0; i < numSteps; i++) {
+            int move = random.nextInt(GearBallMoveTable.NUM_MOVES + 1);
+
+            if (move < GearBallMoveTable.NUM_MOVES)
+                gearBall.rotate(move);
+        }
+    }
+
+    /**
+     * Reads states written by main.
+     * @param in The file's contents.
+     * @return The states.
+     * @throws IOException If the file cannot be read or is not a file of states.
+     */
+    public static List<GearBallState> readStates(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION)
+            throw new IOException("Not a file of gear ball states");
+
+        long numStates = in.readLong();
+        ArrayList<GearBallState> states = new ArrayList<>();
+
+        for (long i = 0; i < numStates; i++)
+            states.add(GearBallState.read(in));
+
+        return states;
+    }
+
+    /**
+     * Writes random states in the format readStates reads, drawing them on several threads at
+     * once. The states are drawn in chunks, each by its own walk seeded in chunk order, and the
+     * threads take the chunks in turn; the chunks are written in order, so what is written
+     * depends on the seed, the count and the mixing moves but not on the number of threads.
+     * @param out Where the states are written.
+     * @param numStates The number of states to write.
+     * @param seed Seed for the walks.
+     * @param mixingMoves The number of random steps taken between samples.
+     * @param numThreads The number of walks run at once.
+     * @throws IOException If the states cannot be written.
+     * @throws InterruptedException If interrupted while waiting for the threads.
+     */
+    public static void writeStates(DataOutputStream out, long numStates, long seed, int mixingMoves, int numThreads)
+            throws IOException, InterruptedException {
+        checkArguments(numStates, numThreads);
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(numStates);
+
+        // the seeds of the walks, one per chunk in chunk order
+        SplittableRandom seeds = new SplittableRandom(seed);
+        GearBallState[][] chunks = new GearBallState[numThreads][CHUNK_STATES];
+        long written = 0;
+
+        while (written < numStates) {
+            Thread[] threads = new Thread[numThreads];
+            int[] chunkSizes = new int[numThreads];
+            long assigned = written;
+
+            for (int i = 0; i < numThreads && assigned < numStates; i++) {
+                GearBallStateSampler sampler = new GearBallStateSampler(seeds.nextLong(), mixingMoves);
+                GearBallState[] chunk = chunks[i];
+                int chunkSize = (int) Math.min(CHUNK_STATES, numStates - assigned);
+
+                chunkSizes[i] = chunkSize;
+                assigned += chunkSize;
+                threads[i] = new Thread(() -> {
+                    for (int j = 0; j < chunkSize; j++)
+                        chunk[j] = sampler.next();
+                });
+                threads[i].start();
+            }
+
+            for (int i = 0; i < numThreads && threads[i] != null; i++) {
+                threads[i].join();
+
+                for (int j = 0; j < chunkSizes[i]; j++, written++)
+                    chunks[i][j].write(out);
+            }
+        }
+    }
+
+    /**
+     * Exits with an error if the number of states or threads cannot be written with.
+     * @param numStates The number of states to write.
+     * @param numThreads The number of walks run at once.
+     */
+    private static void checkArguments(long numStates, int numThreads) {
+        if (numStates < 0) {
+            System.err.println("GearBallStateSampler: error - Invalid number of states: " + numStates);
+            System.exit(1);
+        }
+
+        if (numThreads < 1) {
+            System.err.println("GearBallStateSampler: error - Invalid number of threads: " + numThreads);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Writes random states to a binary file, drawing them on several threads at once.
+     * @param args The number of states, the file to write, and optionally the seed, the
+     *             mixing moves between samples, and the number of threads.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: java gearball.GearBallStateSampler <count> <file> [seed] [mixing moves] [threads]");
+            System.exit(1);
+        }
+
+        long numStates = Long.parseLong(args[0]);
+        String fileName = args[1];
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.currentTimeMillis();
+        int mixingMoves = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MIXING_MOVES;
+        int numThreads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        // checked before the file is created, so that a bad argument leaves no empty file behind
+        checkArguments(numStates, numThreads);
+
+        long startTime = System.currentTimeMillis();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)))) {
+            writeStates(out, numStates, seed, mixingMoves, numThreads);
+        } catch (IOException e) {
+            System.err.println("GearBallStateSampler: error - Could not write " + fileName + ": " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+
+        double seconds = Math.max(System.currentTimeMillis() - startTime, 1) / 1000.0;
+        System.out.printf("Wrote %d states to %s with seed %d on %d threads in %.1f seconds (%.0f states/sec)%n",
+                          numStates, fileName, seed, numThreads, seconds, numStates / seconds);
+    }
+}
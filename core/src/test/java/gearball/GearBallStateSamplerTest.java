@@ -0,0 +1,76 @@
+/**
+ * File Name        GearBallStateSamplerTest.java
+ * Purpose          Checks that sampled states depend on the seed but not on the number of threads,
+ *                  and that they read back as written.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class GearBallStateSamplerTest {
+    private static final long SEED = 20170923L;
+    // enough states for more than one chunk, and a last chunk that is not full
+    private static final int NUM_STATES = 25001;
+
+    @Test
+    public void statesDoNotDependOnTheNumberOfThreads() throws Exception {
+        assertArrayEquals(write(SEED, 1), write(SEED, 4));
+    }
+
+    @Test
+    public void statesDependOnTheSeed() throws Exception {
+        assertFalse(Arrays.equals(write(SEED, 2), write(SEED + 1, 2)));
+    }
+
+    @Test
+    public void statesReadBackAsWritten() throws Exception {
+        byte[] written = write(SEED, 4);
+        List<GearBallState> states = GearBallStateSampler.readStates(new DataInputStream(new ByteArrayInputStream(written)));
+
+        assertEquals(NUM_STATES, states.size());
+
+        // the states the sampler draws are the ones it wrote, in order
+        GearBallStateSampler sampler = new GearBallStateSampler(new SplittableRandom(SEED).nextLong(),
+                                                                GearBallStateSampler.DEFAULT_MIXING_MOVES);
+        for (int i = 0; i < 100; i++)
+            assertEquals(sampler.next(), states.get(i));
+
+        ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(rewritten);
+        out.writeInt(GearBallStateSampler.MAGIC);
+        out.writeInt(GearBallStateSampler.VERSION);
+        out.writeLong(states.size());
+        for (GearBallState state : states)
+            state.write(out);
+
+        assertArrayEquals(written, rewritten.toByteArray());
+    }
+
+    @Test(expected = IOException.class)
+    public void otherFilesAreRejected() throws Exception {
+        GearBallStateSampler.readStates(new DataInputStream(new ByteArrayInputStream(new byte[16])));
+    }
+
+    private static byte[] write(long seed, int numThreads) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        GearBallStateSampler.writeStates(out, NUM_STATES, seed, GearBallStateSampler.DEFAULT_MIXING_MOVES, numThreads);
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * File Name        GearBallStateTest.java
+ * Purpose          Checks that packed states survive toString, write and toGearBall unchanged.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class GearBallStateTest {
+    private static final long SEED = 20170923L;
+    private static final int NUM_SCRAMBLES = 200;
+
+    @Test
+    public void fromStringReadsWhatToStringWrites() {
+        for (int i = 0; i < NUM_SCRAMBLES; i++) {
+            GearBallState state = scrambled(i);
+
+            assertEquals(state, GearBallState.fromString(state.toString()));
+        }
+    }
+
+    @Test
+    public void readReadsWhatWriteWrites() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        for (int i = 0; i < NUM_SCRAMBLES; i++)
+            scrambled(i).write(out);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+
+        for (int i = 0; i < NUM_SCRAMBLES; i++)
+            assertEquals(scrambled(i), GearBallState.read(in));
+    }
+
+    @Test
+    public void toGearBallRebuildsTheConfiguration() {
+        for (int i = 0; i < NUM_SCRAMBLES; i++) {
+            GearBall gearBall = new GearBall();
+            GearBallRandomizer.scramble(gearBall, SEED + i, 40);
+
+            GearBall rebuilt = gearBall.getState().toGearBall();
+
+            assertTrue(rebuilt.hasSameConfiguration(gearBall));
+            assertEquals(gearBall.getState(), rebuilt.getState());
+        }
+    }
+
+    @Test
+    public void onlyTheSolvedStateIsSolved() {
+        assertTrue(new GearBall().getState().isSolved());
+
+        for (int i = 0; i < NUM_SCRAMBLES; i++) {
+            GearBallState state = scrambled(i);
+            assertEquals(state.toGearBall().isSolved(), state.isSolved());
+        }
+    }
+
+    @Test
+    public void fromStringRejectsMalformedText() {
+        String solved = new GearBall().getState().toString();
+
+        assertNull(GearBallState.fromString(solved.substring(1)));
+        assertNull(GearBallState.fromString("g" + solved.substring(1)));
+        // the last digit holds the first gear, and 7 is not a gear state
+        assertNull(GearBallState.fromString(solved.substring(0, 63) + "7"));
+    }
+
+    private static GearBallState scrambled(int i) {
+        GearBall gearBall = new GearBall();
+        GearBallRandomizer.scramble(gearBall, SEED + i, 40);
+        return gearBall.getState();
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * File Name        GearBallTest.java
+ * Purpose          Checks that the square and gear counts rotate keeps up to date match a full
+ *                  recount over a long random walk.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class GearBallTest {
+    private static final long SEED = 20170923L;
+    // moves made in the walk
+    private static final int WALK_MOVES = 200000;
+
+    @Test
+    public void incrementalCountsMatchARecountThroughoutAWalk() {
+        Random random = new Random(SEED);
+        GearBall gearBall = new GearBall();
+
+        for (int i = 0; i < WALK_MOVES; i++) {
+            int step = random.nextInt(1000);
+
+            if (step == 0) {
+                // back to solved, where the counts are set rather than recounted
+                gearBall.reset();
+                assertEquals(0, gearBall.getNumSquaresOutOfPlace());
+                assertEquals(0, gearBall.getNumGearsNotInStateZero());
+                assertTrue(gearBall.isSolved());
+            } else if (step == 1) {
+                // carry on from a copy, which takes its counts from the original
+                gearBall = new GearBall(gearBall);
+            }
+
+            int move = random.nextInt(GearBallMoveTable.NUM_MOVES);
+            gearBall.rotate(move);
+
+            // a gear ball unpacked from the state has no counts and works them out from scratch
+            GearBall rebuilt = gearBall.getState().toGearBall();
+            assertEquals("squares after move " + i, rebuilt.getNumSquaresOutOfPlace(),
+                         gearBall.getNumSquaresOutOfPlace());
+            assertEquals("gears after move " + i, rebuilt.getNumGearsNotInStateZero(),
+                         gearBall.getNumGearsNotInStateZero());
+        }
+    }
+}
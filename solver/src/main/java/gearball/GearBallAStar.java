@@ -0,0 +1,385 @@
+/**
+ * Author           Taylor Ecton
+ * File Name        GearBallAStar.java
+ * Date Modified    2017-09-23
+ * Purpose          A class that implements the A* algorithm for the gear ball, and an anytime
+ *                  weighted A* that finds a solution quickly and then improves it.
+ */
+
+package gearball;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Calendar;
+import java.util.function.Consumer;
+
+public class GearBallAStar {
+    // below this weight the anytime search goes straight to w = 1; the rounds in between
+    // would cost nearly as much as A* and rarely find a shorter solution
+    private static final double MIN_WEIGHT_STEP = 0.1;
+
+    // the root node of the search graph
+    private GearBallNode root;
+    // the current node in the search graph
+    private GearBallNode currentNode;
+    // the expanded node with the lowest h(node), the closest the search has come to a solution
+    private GearBallNode bestNode;
+    // open list ordered by f(node) = g(node) + h(node), which also finds nodes by state
+    private GearBallOpenList frontier;
+    // hashed set of fingerprints of explored states
+    private GearBallClosedSet explored;
+    // the most memory the set of explored states may use, for the set made for each anytime round
+    private int closedSetMegabytes;
+    // number of nodes taken off the frontier and expanded
+    private int nodesExpanded = 0;
+    // gear ball the configuration being expanded is unpacked into; children are made by
+    // rotating it and rotating it back
+    private GearBall expanding = new GearBall();
+    // computes h(node) for each configuration
+    private GearBallHeuristic heuristic;
+    // the moves that can be skipped after the last few moves; only those that make a sequence
+    // a shorter one could replace, since states reached again by another path are dropped
+    private GearBallMovePruning pruning = GearBallMovePruning.getGraphSearchTable();
+    // live counters of the search's progress, or null if nobody is watching
+    private GearBallSearchMetrics metrics;
+
+    /**
+     * Constructor for GearBallAStar
+     * @param rootGB The gear ball configuration that will serve as the root node
+     */
+    public GearBallAStar(GearBall rootGB) {
+        this(rootGB, GearBallClosedSet.DEFAULT_MAX_MEGABYTES);
+    }
+
+    /**
+     * Constructor for GearBallAStar
+     * @param rootGB The gear ball configuration that will serve as the root node
+     * @param closedSetMegabytes The most memory the set of explored states may use
+     */
+    public GearBallAStar(GearBall rootGB, int closedSetMegabytes) {
+        this(rootGB, closedSetMegabytes, new GearBallHeapOpenList());
+    }
+
+    /**
+     * Constructor for GearBallAStar
+     * @param rootGB The gear ball configuration that will serve as the root node
+     * @param closedSetMegabytes The most memory the set of explored states may use
+     * @param frontier The empty open list to use, either a GearBallHeapOpenList or a
+     *                 GearBallBucketOpenList, which breaks ties in f on low h
+     */
+    public GearBallAStar(GearBall rootGB, int closedSetMegabytes, GearBallOpenList frontier) {
+        this(rootGB, closedSetMegabytes, frontier, new GearBallHeuristic());
+    }
+
+    /**
+     * Constructor for GearBallAStar
+     * @param rootGB The gear ball configuration that will serve as the root node
+     * @param closedSetMegabytes The most memory the set of explored states may use
+     * @param frontier The empty open list to use, either a GearBallHeapOpenList or a
+     *                 GearBallBucketOpenList, which breaks ties in f on low h
+     * @param heuristic Computes h(node); it must never overestimate for the solution to be optimal
+     */
+    public GearBallAStar(GearBall rootGB, int closedSetMegabytes, GearBallOpenList frontier,
+                         GearBallHeuristic heuristic) {
+        this.heuristic = heuristic;
+        this.closedSetMegabytes = closedSetMegabytes;
+        this.explored = new GearBallClosedSet(closedSetMegabytes);
+        this.frontier = frontier;
+        // create a new node using the starting configuration
+        this.root = new GearBallNode(rootGB.getState(), null, -1, heuristic.getHValue(rootGB));
+        // set the current node to the root
+        this.currentNode = root;
+        this.bestNode = root;
+        // add the root to the frontier
+        frontier.add(root);
+    }
+
+    /**
+     * Performs A* search algorithm on gear ball
+     * @return True if a solution is found, false if no solution is found.
+     */
+    public boolean performSearch() {
+        return performSearch(new GearBallSearchBudget()).isSolved();
+    }
+
+    /**
+     * Performs A* search algorithm on gear ball, giving up once it has used its budget.
+     * @param budget The most nodes, heap and time the search may use; cancelling it from
+     *               another thread stops the search
+     * @return The solution if one is found, otherwise why the search stopped and the closest
+     *         it came to a solution
+     */
+    public GearBallSearchResult performSearch(GearBallSearchBudget budget) {
+        printSearchStart("Searching. This may take a while...");
+
+        long searchStart = System.currentTimeMillis();
+        budget.start();
+
+        GearBallSearchResult.Status status = search(1.0, Integer.MAX_VALUE, budget);
+        if (status == GearBallSearchResult.Status.SOLVED)
+            bestNode = currentNode;
+
+        return getResult(status, bestNode, currentNode.getFValue(), searchStart);
+    }
+
+    /**
+     * Performs anytime weighted A* on the gear ball. The first round orders the frontier by
+     * g(node) + w * h(node), which reaches a solution after far fewer expansions than A*, though
+     * the solution may be up to w times longer than the shortest. Each later round lowers w and
+     * searches again, skipping every node that cannot lead to a shorter solution than the best
+     * found so far, until a round with w = 1 proves the best solution optimal or the budget is used up.
+     * @param initialWeight The weight w on h(node) for the first round, at least 1; 1 is A*.
+     * @param budget The most nodes, heap and time all of the rounds together may use; cancelling
+     *               it from another thread stops the search
+     * @param solutionListener Given each solution as it is found, each shorter than the last;
+     *                         its f bound is the length no solution can be shorter than
+     * @return SOLVED with the optimal solution if the search finished, otherwise why it stopped
+     *         with the best solution found (whose best h is 0), or the closest it came to one
+     */
+    public GearBallSearchResult performAnytimeSearch(double initialWeight, GearBallSearchBudget budget,
+                                                     Consumer<GearBallSearchResult> solutionListener) {
+        if (!(initialWeight >= 1)) {
+            System.err.println("GearBallAStar: error - Invalid weight: " + initialWeight);
+            System.exit(1);
+        }
+
+        printSearchStart("Searching. This may take a while...");
+
+        long searchStart = System.currentTimeMillis();
+        budget.start();
+
+        // the shortest solution found so far, and the length no solution can be shorter than
+        GearBallNode incumbent = null;
+        int lowerBound = root.getHValue();
+        double weight = initialWeight;
+
+        while (true) {
+            // start the round over from the root, ordered by the new weight; the explored
+            // states of the last round were closed under another weight, so they are dropped
+            frontier.clear();
+            explored = new GearBallClosedSet(closedSetMegabytes);
+            currentNode = new GearBallNode(root.getState(), null, -1, root.getHValue(), weight);
+            frontier.add(currentNode);
+
+            int costBound = (incumbent == null) ? Integer.MAX_VALUE : incumbent.getGValue();
+            GearBallSearchResult.Status status = search(weight, costBound, budget);
+
+            if (status == GearBallSearchResult.Status.SOLVED) {
+                // each solution is shorter than the cost bound; one found with weight w is at most
+                // w times the length of the shortest
+                incumbent = currentNode;
+                lowerBound = Math.max(lowerBound, (int) Math.ceil(incumbent.getGValue() / weight));
+                if (weight == 1.0) lowerBound = incumbent.getGValue();
+
+                solutionListener.accept(getResult(status, incumbent, lowerBound, searchStart));
+            } else if (status != GearBallSearchResult.Status.EXHAUSTED) {
+                // out of budget: report the best solution found, or the closest the search came
+                if (incumbent != null) currentNode = incumbent;
+                return getResult(status, incumbent != null ? incumbent : bestNode, lowerBound, searchStart);
+            }
+
+            // A* finding no solution shorter than the incumbent proves it is the shortest, as
+            // does the incumbent being as short as the bound
+            if (weight == 1.0 || (incumbent != null && incumbent.getGValue() <= lowerBound)) {
+                if (incumbent == null)
+                    return getResult(GearBallSearchResult.Status.EXHAUSTED, bestNode, lowerBound, searchStart);
+
+                currentNode = incumbent;
+                return getResult(GearBallSearchResult.Status.SOLVED, incumbent, incumbent.getGValue(), searchStart);
+            }
+
+            weight = 1 + (weight - 1) / 2;
+            if (weight - 1 < MIN_WEIGHT_STEP) weight = 1.0;
+        }
+    }
+
+    /**
+     * Prints that a search is starting and the time it started at. Shared by every solver.
+     * @param header The line announcing the search.
+     */
+    static void printSearchStart(String header) {
+        Calendar calendar = Calendar.getInstance();
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat("HH:mm:ss");
+        System.out.println(header + "\n");
+        // Prints the time at start of search so you can know how long search has been running
+        System.out.println("Search started at: " + simpleDateFormat.format(calendar.getTime()));
+    }
+
+    /**
+     * Expands nodes from the frontier until a solved configuration is taken off it, the
+     * frontier is empty or the budget is used up. The node taken off last is left in currentNode.
+     * @param weight The weight w the frontier's nodes were made with; children are made with it too.
+     * @param costBound Nodes with f(node) = g(node) + h(node) at least this are not expanded or
+     *                  added, since they cannot lead to a solution shorter than this.
+     * @param budget The most nodes, heap and time the search may use.
+     * @return SOLVED, EXHAUSTED, or the reason the budget gave to stop.
+     */
+    private GearBallSearchResult.Status search(double weight, int costBound, GearBallSearchBudget budget) {
+        // continue searching until a solved configuration is found
+        while (!currentNode.getState().isSolved()) {
+            // give up if there are no nodes left to explore
+            if (frontier.size() == 0) return GearBallSearchResult.Status.EXHAUSTED;
+
+            // give up, keeping what has been found so far, once the budget is used up
+            GearBallSearchResult.Status stopped = budget.check(nodesExpanded);
+            if (stopped != null) return stopped;
+
+            // get the next node off of the queue
+            currentNode = frontier.poll();
+
+            // stop if the configuration of the retrieved node is solved
+            if (currentNode.getState().isSolved()) break;
+
+            // a weighted frontier is not ordered by f, so nodes past the bound can still be on it
+            if (currentNode.getFValue() >= costBound) continue;
+
+            if (currentNode.getHValue() < bestNode.getHValue())
+                bestNode = currentNode;
+
+            // add the current node to the explored nodes; once the closed set is full the
+            // search carries on without it and may expand some states more than once
+            explored.add(currentNode.getKey().longHash(), currentNode.getGValue());
+            nodesExpanded++;
+
+            if (metrics != null) {
+                metrics.nodeExpanded();
+                metrics.setFBound(currentNode.getFValue());
+                metrics.setOpenSize(frontier.size());
+                metrics.setClosedSize(explored.size());
+            }
+
+            currentNode.getState().writeTo(expanding);
+            int history = GearBallMovePruning.getState(currentNode);
+
+            // for every type of move on the gear ball
+            for (int moveNum = 0; moveNum < 12; moveNum++) {
+                // skip moves that make a sequence a shorter one has the same effect as
+                if (!pruning.isAllowed(history, moveNum)) continue;
+
+                // get the configuration of gear ball after the move is made
+                expanding.rotate(moveNum);
+                GearBallState childState = expanding.getState();
+                int h = heuristic.getHValue(expanding);
+                expanding.rotate(GearBallMoveTable.inverse(moveNum));
+
+                // skip configurations that cannot lead to a shorter solution than the bound
+                if (currentNode.getGValue() + 1 + h >= costBound) continue;
+
+                // create a node with this new configuration
+                GearBallNode child = new GearBallNode(childState, currentNode, moveNum, h, weight);
+                if (metrics != null) metrics.nodeGenerated(h);
+
+                // skip configurations that have already been explored, or that are symmetric to
+                // one that has, by a path no longer than this one. Symmetric states can have
+                // different heuristic values, so one may be explored before a shorter path to
+                // the other is found; that state is reopened rather than cut off
+                int exploredG = explored.getG(child.getKey().longHash());
+                if (exploredG != GearBallClosedSet.NOT_FOUND && exploredG <= child.getGValue()) {
+                    if (metrics != null) metrics.duplicateHit();
+                    continue;
+                }
+
+                GearBallNode inFrontier = frontier.get(child.getKey());
+
+                if (inFrontier == null) {
+                    // if the new configuration is not in frontier, add it to the frontier, reopening
+                    // it if it was explored by a longer path
+                    if (exploredG != GearBallClosedSet.NOT_FOUND && metrics != null) metrics.pathImproved();
+                    frontier.add(child);
+                } else if (inFrontier.getGValue() <= child.getGValue()) {
+                    // the frontier already holds the configuration by a path no longer than this one
+                    if (metrics != null) metrics.duplicateHit();
+                } else {
+                    if (metrics != null) metrics.pathImproved();
+
+                    // if the new configuration is in the frontier by a longer path than the current node,
+                    // replace it with this lower cost version of this configuration; the two may be
+                    // symmetric states with different heuristic values, so the path lengths are compared
+                    frontier.decreaseKey(inFrontier, child);
+                }
+            }
+        }
+
+        return GearBallSearchResult.Status.SOLVED;
+    }
+
+    /**
+     * Describes where the search has got to.
+     * @param status Why the search stopped.
+     * @param best The solution, or the node with the lowest h reached.
+     * @param fBound The f value reached, or the length no solution can be shorter than.
+     * @param searchStart When the search started, from System.currentTimeMillis.
+     * @return The result, with the moves to the best node.
+     */
+    private GearBallSearchResult getResult(GearBallSearchResult.Status status, GearBallNode best, int fBound,
+                                           long searchStart) {
+        return new GearBallSearchResult(status, getMoves(best), best.getHValue(), fBound,
+                                        nodesExpanded, frontier.size(), explored.size(),
+                                        System.currentTimeMillis() - searchStart);
+    }
+
+    /**
+     * Gets the configuration of the current node.
+     * @return A GearBall in the configuration of the current GearBallNode
+     */
+    public GearBall getCurrentNode() {
+        return currentNode.getState().toGearBall();
+    }
+
+    /**
+     * Gets the moves from the root to the current node, rebuilt by following parent links.
+     * @return The simplified move numbers in the order they are made from the root.
+     */
+    public List<Integer> getSolutionMoves() {
+        return getMoves(currentNode);
+    }
+
+    /**
+     * Gets the moves from the root to a node, rebuilt by following parent links.
+     * @param last The node.
+     * @return The simplified move numbers in the order they are made from the root.
+     */
+    private static List<Integer> getMoves(GearBallNode last) {
+        ArrayList<Integer> moves = new ArrayList<>();
+
+        for (GearBallNode node = last; node.getParent() != null; node = node.getParent())
+            moves.add(node.getMove());
+
+        Collections.reverse(moves);
+        return moves;
+    }
+
+    public int getSolutionDepth() {
+        return currentNode.getGValue();
+    }
+
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * Sets the counters the search updates as it runs, so that its progress can be watched
+     * while it is still searching.
+     * @param metrics The metrics to update, or null to keep no metrics
+     */
+    public void setMetrics(GearBallSearchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Prints the number of nodes expanded and the memory used by the explored states.
+     */
+    public void printSearchReport() {
+        System.out.println("Number of nodes expanded: " + nodesExpanded);
+        System.out.println("Explored states stored: " + explored.size());
+        System.out.printf("Explored set memory (MB): %.1f of %.1f%n",
+                          explored.getMemoryUsed() / 1048576.0, explored.getMemoryLimit() / 1048576.0);
+
+        if (explored.isFull()) {
+            System.out.println("Explored set reached its memory limit; " + explored.getNumRejected()
+                               + " states were not recorded.");
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * File Name        GearBallBidirectionalSearch.java
+ * Purpose          A class that implements a bidirectional breadth-first search for the gear ball,
+ *                  searching forwards from the scramble and backwards from the solved states.
+ */
+
+package gearball;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+public class GearBallBidirectionalSearch {
+    // the configuration being solved
+    private GearBall root;
+    // every state reached from each side, mapped to the node that first reached it; states
+    // are found by GearBallNode.getKey, so a state symmetric to one reached counts as reached
+    private HashMap<GearBallState, GearBallNode> forwardReached = new HashMap<>();
+    private HashMap<GearBallState, GearBallNode> backwardReached = new HashMap<>();
+    // the deepest layer of nodes reached from each side, still to be expanded
+    private ArrayList<GearBallNode> forwardFrontier = new ArrayList<>();
+    private ArrayList<GearBallNode> backwardFrontier = new ArrayList<>();
+    // number of nodes expanded by each side
+    private long forwardExpanded = 0;
+    private long backwardExpanded = 0;
+    // the nodes of each side where the two searches met on the shortest path, or null
+    private GearBallNode forwardMeeting;
+    private GearBallNode backwardMeeting;
+    // total time taken by the search in milliseconds
+    private long elapsedMillis = 0;
+    // gear ball the configuration being expanded is unpacked into
+    private GearBall expanding = new GearBall();
+    // the moves that can be skipped after the last few moves; only those that make a sequence
+    // a shorter one could replace, since states reached again by another path are dropped
+    private GearBallMovePruning pruning = GearBallMovePruning.getGraphSearchTable();
+
+    /**
+     * Constructor for GearBallBidirectionalSearch
+     * @param rootGB The gear ball configuration to solve; it is not modified
+     */
+    public GearBallBidirectionalSearch(GearBall rootGB) {
+        this.root = new GearBall(rootGB);
+    }
+
+    /**
+     * Performs the bidirectional search: breadth-first searches from the scramble and from
+     * every solved state take turns expanding a whole layer, always the side with the smaller
+     * layer, until a layer reaches a state the other side has reached. The shortest path through
+     * any meeting state found in that layer is the shortest solution.
+     * @return True if a solution is found, false if no solution is found.
+     */
+    public boolean performSearch() {
+        GearBallAStar.printSearchStart("Searching. This may take a while...");
+
+        long searchStart = System.currentTimeMillis();
+
+        GearBallNode start = new GearBallNode(root.getState(), null, -1, 0);
+        forwardReached.put(start.getKey(), start);
+        forwardFrontier.add(start);
+
+        // the ball can be solved in any orientation, so the backward search starts from all of them
+        for (GearBallState solved : getSolvedStates()) {
+            GearBallNode goal = new GearBallNode(solved, null, -1, 0);
+
+            // every solved state is symmetric to the others, so only the first is kept
+            if (backwardReached.putIfAbsent(goal.getKey(), goal) == null)
+                backwardFrontier.add(goal);
+        }
+
+        if (backwardReached.containsKey(start.getKey())) {
+            forwardMeeting = start;
+            backwardMeeting = backwardReached.get(start.getKey());
+        }
+
+        while (forwardMeeting == null) {
+            if (forwardFrontier.isEmpty() || backwardFrontier.isEmpty()) break;
+
+            if (forwardFrontier.size() <= backwardFrontier.size()) {
+                forwardFrontier = expandLayer(forwardFrontier, forwardReached, backwardReached, true);
+            } else {
+                backwardFrontier = expandLayer(backwardFrontier, backwardReached, forwardReached, false);
+            }
+        }
+
+        elapsedMillis = System.currentTimeMillis() - searchStart;
+        return forwardMeeting != null;
+    }
+
+    /**
+     * Expands every node of one side's layer, recording the shortest meeting with the other side.
+     * @param layer The nodes to expand.
+     * @param reached The states reached by this side.
+     * @param otherReached The states reached by the other side.
+     * @param forward true when expanding the forward search
+     * @return The next layer of this side.
+     */
+    private ArrayList<GearBallNode> expandLayer(ArrayList<GearBallNode> layer,
+                                                HashMap<GearBallState, GearBallNode> reached,
+                                                HashMap<GearBallState, GearBallNode> otherReached,
+                                                boolean forward) {
+        ArrayList<GearBallNode> nextLayer = new ArrayList<>();
+        int bestLength = Integer.MAX_VALUE;
+
+        for (GearBallNode node : layer) {
+            if (forward) forwardExpanded++;
+            else backwardExpanded++;
+
+            node.getState().writeTo(expanding);
+            int history = GearBallMovePruning.getState(node);
+
+            // every move's inverse is also a move, so both sides make the same moves, and a path
+            // from solved that a shorter one could replace is no more use than one from the scramble
+            for (int moveNum = 0; moveNum < GearBallMoveTable.NUM_MOVES; moveNum++) {
+                if (!pruning.isAllowed(history, moveNum)) continue;
+
+                expanding.rotate(moveNum);
+                GearBallNode child = new GearBallNode(expanding.getState(), node, moveNum, 0);
+                expanding.rotate(GearBallMoveTable.inverse(moveNum));
+
+                if (reached.containsKey(child.getKey())) continue;
+
+                reached.put(child.getKey(), child);
+                nextLayer.add(child);
+
+                GearBallNode other = otherReached.get(child.getKey());
+                if (other != null && child.getGValue() + other.getGValue() < bestLength) {
+                    bestLength = child.getGValue() + other.getGValue();
+                    forwardMeeting = forward ? child : other;
+                    backwardMeeting = forward ? other : child;
+                }
+            }
+        }
+
+        return nextLayer;
+    }
+
+    /**
+     * Gets the solved state for every way the gear ball can be held: every face a single
+     * color and every gear in state 0.
+     * @return The solved states.
+     */
+    private static List<GearBallState> getSolvedStates() {
+        ArrayList<GearBallState> solvedStates = new ArrayList<>();
+
+        for (int[] faceColors : GearBallMoveTable.getSolvedOrientations()) {
+            GearBall solved = new GearBall();
+            GearBallFace[] faces = solved.getFaces();
+
+            for (int face = 0; face < faces.length; face++) {
+                for (int row = 0; row < GearBallFace.SIZE; row++) {
+                    for (int col = 0; col < GearBallFace.SIZE; col++)
+                        faces[face].setColor(row, col, GearBallState.COLORS[faceColors[face]]);
+                }
+            }
+
+            solvedStates.add(new GearBallState(solved));
+        }
+
+        return solvedStates;
+    }
+
+    /**
+     * Gets the configuration the solution ends on.
+     * @return The solved GearBall once a solution is found, otherwise the scramble
+     */
+    public GearBall getCurrentNode() {
+        GearBall gearBall = new GearBall(root);
+
+        for (int move : getSolutionMoves())
+            gearBall.rotate(move);
+
+        return gearBall;
+    }
+
+    public int getSolutionDepth() {
+        if (forwardMeeting == null) return -1;
+
+        return forwardMeeting.getGValue() + backwardMeeting.getGValue();
+    }
+
+    /**
+     * Gets the moves of the solution: the forward path from the scramble to the meeting state,
+     * followed by the backward path from it to a solved state, each of whose moves is undone.
+     * The two sides may have met at states that are only symmetric to each other, so the
+     * backward moves are carried over to the forward side's state through the representative
+     * both states share.
+     * @return The simplified move numbers in the order they are made from the root.
+     */
+    public List<Integer> getSolutionMoves() {
+        ArrayList<Integer> moves = new ArrayList<>();
+        if (forwardMeeting == null) return moves;
+
+        for (GearBallNode node = forwardMeeting; node.getParent() != null; node = node.getParent())
+            moves.add(node.getMove());
+        Collections.reverse(moves);
+
+        int forwardRotation = GearBallSymmetry.getCanonicalRotation(forwardMeeting.getState());
+        int backwardRotation = GearBallSymmetry.getCanonicalRotation(backwardMeeting.getState());
+
+        for (GearBallNode node = backwardMeeting; node.getParent() != null; node = node.getParent()) {
+            int move = GearBallSymmetry.mapMove(backwardRotation, GearBallMoveTable.inverse(node.getMove()));
+            moves.add(GearBallSymmetry.unmapMove(forwardRotation, move));
+        }
+
+        return moves;
+    }
+
+    public long getForwardNodesExpanded() {
+        return forwardExpanded;
+    }
+
+    public long getBackwardNodesExpanded() {
+        return backwardExpanded;
+    }
+
+    /**
+     * Prints the nodes expanded and states reached by each side and the time taken.
+     */
+    public void printSearchReport() {
+        System.out.println("Nodes expanded from the scramble: " + forwardExpanded);
+        System.out.println("Nodes expanded from solved: " + backwardExpanded);
+        System.out.println("States reached from the scramble: " + forwardReached.size());
+        System.out.println("States reached from solved: " + backwardReached.size());
+        System.out.println("Search time (seconds): " + (elapsedMillis / 1000.0));
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * File Name        GearBallBucketOpenList.java
+ * Purpose          An open list kept as buckets of nodes by f value (or weighted f), breaking ties on
+ *                  low h and then LIFO.
+ */
+
+package gearball;
+
+import java.util.HashMap;
+
+public class GearBallBucketOpenList implements GearBallOpenList {
+    // buckets[p][h] holds the nodes with priority p and that h value as a stack; the
+    // priority is f(node) unless the nodes were made with a weight
+    private Bucket[][] buckets = new Bucket[32][];
+    // no bucket below this priority holds a node
+    private int lowestPriority = 0;
+    // number of nodes in all of the buckets
+    private int size = 0;
+    // every node in the buckets, by its key
+    private HashMap<GearBallState, GearBallNode> index = new HashMap<>();
+
+    public void add(GearBallNode node) {
+        index.put(node.getKey(), node);
+        bucketFor(node).push(node);
+        size++;
+
+        if (node.getPriority() < lowestPriority)
+            lowestPriority = node.getPriority();
+    }
+
+    public GearBallNode poll() {
+        if (size == 0) return null;
+
+        // find the lowest priority with a node, then the lowest h value within it; with equal
+        // f, a lower h means a deeper node, which is closer to a solution
+        while (true) {
+            Bucket[] byH = (lowestPriority < buckets.length) ? buckets[lowestPriority] : null;
+
+            if (byH != null) {
+                for (Bucket bucket : byH) {
+                    if (bucket != null && bucket.size > 0) {
+                        GearBallNode node = bucket.pop();
+                        index.remove(node.getKey());
+                        size--;
+                        return node;
+                    }
+                }
+            }
+
+            lowestPriority++;
+        }
+    }
+
+    public GearBallNode get(GearBallState key) {
+        return index.get(key);
+    }
+
+    public void decreaseKey(GearBallNode oldNode, GearBallNode newNode) {
+        bucketFor(oldNode).remove(oldNode);
+        size--;
+        add(newNode);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        buckets = new Bucket[32][];
+        lowestPriority = 0;
+        size = 0;
+        index.clear();
+    }
+
+    /**
+     * Gets the bucket for a node's priority and h value, creating it if needed.
+     */
+    private Bucket bucketFor(GearBallNode node) {
+        int f = node.getPriority();
+        int h = node.getHValue();
+
+        if (f >= buckets.length) {
+            Bucket[][] larger = new Bucket[Math.max(buckets.length * 2, f + 1)][];
+            System.arraycopy(buckets, 0, larger, 0, buckets.length);
+            buckets = larger;
+        }
+
+        if (buckets[f] == null) {
+            buckets[f] = new Bucket[Math.max(8, h + 1)];
+        } else if (h >= buckets[f].length) {
+            Bucket[] larger = new Bucket[Math.max(buckets[f].length * 2, h + 1)];
+            System.arraycopy(buckets[f], 0, larger, 0, buckets[f].length);
+            buckets[f] = larger;
+        }
+
+        if (buckets[f][h] == null)
+            buckets[f][h] = new Bucket();
+
+        return buckets[f][h];
+    }
+
+    /**
+     * A stack of nodes with the same f and h values. Each node's openIndex is its position
+     * in the stack so it can be removed in constant time.
+     */
+    private static class Bucket {
+        private GearBallNode[] nodes = new GearBallNode[16];
+        private int size = 0;
+
+        private void push(GearBallNode node) {
+            if (size == nodes.length) {
+                GearBallNode[] larger = new GearBallNode[nodes.length * 2];
+                System.arraycopy(nodes, 0, larger, 0, size);
+                nodes = larger;
+            }
+
+            node.openIndex = size;
+            nodes[size++] = node;
+        }
+
+        private GearBallNode pop() {
+            GearBallNode node = nodes[--size];
+            nodes[size] = null;
+            node.openIndex = -1;
+            return node;
+        }
+
+        /**
+         * Removes a node by moving the top of the stack into its place.
+         */
+        private void remove(GearBallNode node) {
+            GearBallNode top = nodes[--size];
+            nodes[size] = null;
+
+            if (top != node) {
+                nodes[node.openIndex] = top;
+                top.openIndex = node.openIndex;
+            }
+            node.openIndex = -1;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * File Name        GearBallClosedSet.java
+ * Purpose          A hashed, memory-bounded set of explored gear ball states for the searches, with
+ *                  the fewest moves each was reached in.
+ */
+
+package gearball;
+
+public class GearBallClosedSet {
+    // default memory budget for the table, in megabytes
+    public static final int DEFAULT_MAX_MEGABYTES = 128;
+
+    // the table starts at this many slots and doubles until the memory budget is reached
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    // the table doubles once it is this full
+    private static final double MAX_LOAD = 0.75;
+
+    // 0 marks an empty slot, so a fingerprint of 0 is stored as this value instead
+    private static final long ZERO_FINGERPRINT = 0x9E3779B97F4A7C15L;
+
+    // returned by getG for a state that is not in the set
+    public static final int NOT_FOUND = -1;
+
+    // bytes used by each slot: the fingerprint and its g value
+    private static final int SLOT_BYTES = Long.BYTES + Short.BYTES;
+
+    // open-addressed table of 64-bit state fingerprints
+    private long[] table;
+    // the g value each fingerprint in the table was explored at, in the same slot
+    private short[] gValues;
+    // number of fingerprints stored in the table
+    private int size;
+    // largest number of slots the memory budget allows
+    private final int maxCapacity;
+    // set once the table can neither grow nor accept another fingerprint
+    private boolean full;
+    // number of adds rejected because the table was full
+    private long rejected;
+
+    /**
+     * Constructor for GearBallClosedSet using the default memory budget.
+     */
+    public GearBallClosedSet() {
+        this(DEFAULT_MAX_MEGABYTES);
+    }
+
+    /**
+     * Constructor for GearBallClosedSet.
+     * @param maxMegabytes The most memory the table is allowed to use.
+     */
+    public GearBallClosedSet(int maxMegabytes) {
+        if (maxMegabytes < 1) {
+            System.err.println("GearBallClosedSet: error - Invalid memory budget: " + maxMegabytes);
+            System.exit(1);
+        }
+
+        // largest power of two number of slots that fits in the budget
+        long maxSlots = ((long) maxMegabytes << 20) / SLOT_BYTES;
+        this.maxCapacity = (int) Long.highestOneBit(Math.min(maxSlots, 1L << 30));
+        this.table = new long[Math.min(INITIAL_CAPACITY, maxCapacity)];
+        this.gValues = new short[table.length];
+    }
+
+    /**
+     * Checks if a state is in the set.
+     * @param fingerprint The fingerprint of the state.
+     * @return true if the state has been added, false otherwise
+     */
+    public boolean contains(long fingerprint) {
+        return getG(fingerprint) != NOT_FOUND;
+    }
+
+    /**
+     * Gets the fewest moves a state in the set was explored at.
+     * @param fingerprint The fingerprint of the state.
+     * @return The state's g value, or NOT_FOUND if the state has not been added.
+     */
+    public int getG(long fingerprint) {
+        if (fingerprint == 0) fingerprint = ZERO_FINGERPRINT;
+
+        int slot = slotOf(fingerprint);
+        return (table[slot] == 0) ? NOT_FOUND : gValues[slot];
+    }
+
+    /**
+     * Adds a state to the set, or lowers its g value if it is already in the set with a
+     * higher one.
+     * @param fingerprint The fingerprint of the state.
+     * @param g The number of moves the state was reached in (0 - Short.MAX_VALUE).
+     * @return true if the state was added or its g value lowered, false if it was already
+     *         present with a g value no higher or the set is full
+     */
+    public boolean add(long fingerprint, int g) {
+        if (fingerprint == 0) fingerprint = ZERO_FINGERPRINT;
+        g = Math.min(g, Short.MAX_VALUE);
+
+        int slot = slotOf(fingerprint);
+
+        if (table[slot] != 0) {
+            if (gValues[slot] <= g) return false;
+
+            gValues[slot] = (short) g;
+            return true;
+        }
+
+        if (size + 1 > table.length * MAX_LOAD) {
+            if (table.length < maxCapacity) {
+                grow();
+                slot = slotOf(fingerprint);
+            } else if (size + 1 >= table.length) {
+                // keep one slot empty so probing always terminates
+                full = true;
+                rejected++;
+                return false;
+            }
+        }
+
+        table[slot] = fingerprint;
+        gValues[slot] = (short) g;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return The number of states in the set.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the memory budget has been reached and states are being rejected
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * @return The number of adds rejected because the set was full.
+     */
+    public long getNumRejected() {
+        return rejected;
+    }
+
+    /**
+     * @return The number of bytes currently used by the table.
+     */
+    public long getMemoryUsed() {
+        return (long) table.length * SLOT_BYTES;
+    }
+
+    /**
+     * @return The most bytes the table is allowed to use.
+     */
+    public long getMemoryLimit() {
+        return (long) maxCapacity * SLOT_BYTES;
+    }
+
+    /**
+     * Doubles the size of the table and reinserts every fingerprint with its g value.
+     */
+    private void grow() {
+        long[] oldTable = table;
+        short[] oldGValues = gValues;
+        table = new long[oldTable.length * 2];
+        gValues = new short[table.length];
+        int mask = table.length - 1;
+
+        for (int i = 0; i < oldTable.length; i++) {
+            long fingerprint = oldTable[i];
+            if (fingerprint == 0) continue;
+
+            int slot = spread(fingerprint) & mask;
+            while (table[slot] != 0)
+                slot = (slot + 1) & mask;
+            table[slot] = fingerprint;
+            gValues[slot] = oldGValues[i];
+        }
+    }
+
+    /**
+     * Finds the slot a fingerprint is in, or the empty slot it would be added to.
+     * @param fingerprint The fingerprint of the state, not 0.
+     * @return The slot.
+     */
+    private int slotOf(long fingerprint) {
+        int mask = table.length - 1;
+        int slot = spread(fingerprint) & mask;
+
+        // probe linearly until the fingerprint or an empty slot is found
+        while (table[slot] != 0 && table[slot] != fingerprint)
+            slot = (slot + 1) & mask;
+
+        return slot;
+    }
+
+    /**
+     * Picks the starting slot hash for a fingerprint. Fingerprints come from
+     * GearBallState.longHash, which is already well mixed, so the two halves are just folded together.
+     * @param fingerprint The fingerprint of the state.
+     * @return The slot hash.
+     */
+    private static int spread(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+}
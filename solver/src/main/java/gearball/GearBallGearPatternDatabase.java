@@ -0,0 +1,295 @@
+/**
+ * File Name        GearBallGearPatternDatabase.java
+ * Purpose          Exact distances to solved for small groups of gears, stored on disk between runs.
+ */
+
+package gearball;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class GearBallGearPatternDatabase {
+    // file the database is saved to, in the directory given by the gearball.pdb.dir
+    // system property or the working directory
+    public static final String FILE_NAME = "gearball-gears.pdb";
+
+    // identifies the file format
+    private static final int MAGIC = 0x47424750;
+    private static final int VERSION = 2;
+
+    // All twelve gear states together have 6^12 (about 2.2 billion) combinations, too many to
+    // store, and the states alone make a weak bound because moves also carry gears from one
+    // position to another. Instead each table follows three gears, known by the colors of their
+    // two sides, and records where each one is, which way round it sits and what state it is in.
+    // Every table holds the exact number of moves needed to solve its three gears, which is a
+    // lower bound on the moves needed for the gear ball, so the largest of them is admissible.
+    private static final int[][] GROUPS = {
+            {0, 1, 2},
+            {3, 4, 5},
+            {6, 7, 8},
+            {9, 10, 11}
+    };
+
+    // a followed gear is encoded as (position * 2 + flipped) * 6 + state
+    private static final int GEAR_CODES = GearBallState.NUM_GEARS * 2 * GearBallState.NUM_GEAR_STATES;
+    private static final int TABLE_SIZE = GEAR_CODES * GEAR_CODES * GEAR_CODES;
+
+    // the gear whose first and second sides have each pair of colors (by GearBallState.COLORS
+    // index), encoded as gear * 2 + 1 if found the other way round, or -1 for no gear
+    private static final int[][] GEAR_OF_COLORS = new int[6][6];
+
+    static {
+        for (int[] row : GEAR_OF_COLORS)
+            Arrays.fill(row, -1);
+
+        for (int gear = 0; gear < GearBallState.NUM_GEARS; gear++) {
+            int color = GearBallState.GEARS[gear][0];
+            int adjColor = GearBallState.GEARS[gear][2];
+            GEAR_OF_COLORS[color][adjColor] = gear * 2;
+            GEAR_OF_COLORS[adjColor][color] = gear * 2 + 1;
+        }
+    }
+
+    // distance to solved for each encoding of a group's three gears, one table per group
+    private final byte[][] distances;
+
+    // the database shared by the solvers, loaded on first use
+    private static GearBallGearPatternDatabase instance;
+
+    private GearBallGearPatternDatabase(byte[][] distances) {
+        this.distances = distances;
+    }
+
+    /**
+     * Gets the shared database, loading it from disk or building and saving it the first time.
+     * @return The gear pattern database.
+     */
+    public static synchronized GearBallGearPatternDatabase getInstance() {
+        if (instance == null) {
+            instance = loadOrBuild(new File(System.getProperty("gearball.pdb.dir", "."), FILE_NAME));
+        }
+
+        return instance;
+    }
+
+    /**
+     * Loads the database from a file, or builds it and saves it there if the file is missing,
+     * damaged or from another version.
+     * @param file The file to load from and save to.
+     * @return The gear pattern database.
+     */
+    static GearBallGearPatternDatabase loadOrBuild(File file) {
+        GearBallGearPatternDatabase database = load(file);
+
+        if (database == null) {
+            System.err.println("Building gear pattern database. This only happens once...");
+            database = build();
+            database.save(file);
+        }
+
+        return database;
+    }
+
+    /**
+     * Builds the database by a breadth-first search backwards from the solved states.
+     * Every move's inverse is also a move, so searching forwards with the same moves is the same.
+     * @return The new gear pattern database.
+     */
+    public static GearBallGearPatternDatabase build() {
+        byte[][] distances = new byte[GROUPS.length][];
+        int[][] orientations = GearBallMoveTable.getSolvedOrientations();
+
+        for (int i = 0; i < GROUPS.length; i++) {
+            distances[i] = buildTable(GROUPS[i], orientations);
+        }
+
+        return new GearBallGearPatternDatabase(distances);
+    }
+
+    /**
+     * Gets a lower bound on the moves needed to solve the gears.
+     * @param gearBall The configuration of the gear ball.
+     * @return The largest distance given by any of the tables.
+     */
+    public int getHValue(GearBall gearBall) {
+        // code of each gear, found by the colors of the gear at each position
+        int[] codes = new int[GearBallState.NUM_GEARS];
+
+        for (int position = 0; position < GearBallState.NUM_GEARS; position++) {
+            int color = GearBallState.colorIndex(gearBall.getGearColor(position, 0));
+            int adjColor = GearBallState.colorIndex(gearBall.getGearColor(position, 1));
+            int gearAndFlip = GEAR_OF_COLORS[color][adjColor];
+
+            codes[gearAndFlip >> 1] = encode(position, gearAndFlip & 1, gearBall.getGearState(position));
+        }
+
+        int value = 0;
+
+        for (int i = 0; i < GROUPS.length; i++) {
+            int[] group = GROUPS[i];
+            int index = (codes[group[0]] * GEAR_CODES + codes[group[1]]) * GEAR_CODES + codes[group[2]];
+            value = Math.max(value, distances[i][index]);
+        }
+
+        return value;
+    }
+
+    /**
+     * Gets the largest distance in the database.
+     * @return The most moves any group of gears needs.
+     */
+    public int getMaxDistance() {
+        int max = 0;
+
+        for (byte[] table : distances) {
+            for (byte distance : table)
+                max = Math.max(max, distance);
+        }
+
+        return max;
+    }
+
+    /**
+     * Builds the table for one group of gears.
+     * @param group The three gears followed, indexed as in GearBallState.GEARS.
+     * @param orientations The colors of the faces of every solved state.
+     * @return The distance to solved for each encoding of the group, or -1 if unreachable.
+     */
+    private static byte[] buildTable(int[] group, int[][] orientations) {
+        // where each move carries the gear at each position, and how it changes the gear
+        int[][] destination = new int[GearBallMoveTable.NUM_MOVES][GEAR_CODES];
+
+        for (int move = 0; move < GearBallMoveTable.NUM_MOVES; move++) {
+            for (int position = 0; position < GearBallState.NUM_GEARS; position++) {
+                int source = GearBallMoveTable.getGearSource(move, position);
+                int flipped = GearBallMoveTable.isGearFlipped(move, position) ? 1 : 0;
+                int delta = GearBallMoveTable.getGearDelta(move, position);
+
+                for (int flip = 0; flip < 2; flip++) {
+                    for (int state = 0; state < GearBallState.NUM_GEAR_STATES; state++) {
+                        destination[move][encode(source, flip, state)] =
+                                encode(position, flip ^ flipped, (state + delta) % GearBallState.NUM_GEAR_STATES);
+                    }
+                }
+            }
+        }
+
+        byte[] table = new byte[TABLE_SIZE];
+        Arrays.fill(table, (byte) -1);
+
+        // every encoding is queued at most once
+        int[] queue = new int[TABLE_SIZE];
+        int head = 0;
+        int tail = 0;
+
+        // start from the group's gears in every solved state, each in state 0
+        for (int[] faceColors : orientations) {
+            int index = 0;
+
+            for (int gear : group) {
+                int color = GearBallState.GEARS[gear][0];
+                int adjColor = GearBallState.GEARS[gear][2];
+                int code = -1;
+
+                for (int position = 0; position < GearBallState.NUM_GEARS; position++) {
+                    int positionColor = faceColors[GearBallState.GEARS[position][0]];
+                    int positionAdjColor = faceColors[GearBallState.GEARS[position][2]];
+
+                    if (positionColor == color && positionAdjColor == adjColor)
+                        code = encode(position, 0, 0);
+                    else if (positionColor == adjColor && positionAdjColor == color)
+                        code = encode(position, 1, 0);
+                }
+
+                index = index * GEAR_CODES + code;
+            }
+
+            if (table[index] < 0) {
+                table[index] = 0;
+                queue[tail++] = index;
+            }
+        }
+
+        while (head < tail) {
+            int index = queue[head++];
+            int first = index / (GEAR_CODES * GEAR_CODES);
+            int second = (index / GEAR_CODES) % GEAR_CODES;
+            int third = index % GEAR_CODES;
+            byte distance = (byte) (table[index] + 1);
+
+            for (int move = 0; move < GearBallMoveTable.NUM_MOVES; move++) {
+                int next = (destination[move][first] * GEAR_CODES + destination[move][second]) * GEAR_CODES
+                        + destination[move][third];
+
+                if (table[next] < 0) {
+                    table[next] = distance;
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * Encodes one followed gear.
+     * @param position The gear position it is at, indexed as in GearBallState.GEARS.
+     * @param flipped 1 if its first side is on the position's second face, 0 otherwise.
+     * @param state The state of the gear (0 - 5).
+     * @return The code of the gear.
+     */
+    private static int encode(int position, int flipped, int state) {
+        return (position * 2 + flipped) * GearBallState.NUM_GEAR_STATES + state;
+    }
+
+    /**
+     * Loads the database from a file.
+     * @param file The file to read.
+     * @return The database, or null if the file is missing or not a valid database.
+     */
+    private static GearBallGearPatternDatabase load(File file) {
+        if (!file.isFile()) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != GROUPS.length)
+                return null;
+
+            byte[][] distances = new byte[GROUPS.length][TABLE_SIZE];
+            for (int i = 0; i < GROUPS.length; i++) {
+                if (in.readInt() != TABLE_SIZE) return null;
+                in.readFully(distances[i]);
+            }
+
+            return new GearBallGearPatternDatabase(distances);
+        } catch (IOException e) {
+            System.err.println("Could not read gear pattern database " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Saves the database to a file. Failing to save only means it is built again next time.
+     * @param file The file to write.
+     */
+    private void save(File file) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(GROUPS.length);
+
+            for (byte[] table : distances) {
+                out.writeInt(table.length);
+                out.write(table);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not save gear pattern database " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * File Name        GearBallHeapOpenList.java
+ * Purpose          An open list kept as a binary heap on f, indexed by state for lookup and decrease-key.
+ */
+
+package gearball;
+
+import java.util.HashMap;
+
+public class GearBallHeapOpenList implements GearBallOpenList {
+    // binary heap of nodes ordered by f(node), or weighted f; heap[0] has the lowest
+    private GearBallNode[] heap = new GearBallNode[1024];
+    // number of nodes in the heap
+    private int size = 0;
+    // every node in the heap, by its key
+    private HashMap<GearBallState, GearBallNode> index = new HashMap<>();
+
+    public void add(GearBallNode node) {
+        if (size == heap.length) {
+            GearBallNode[] larger = new GearBallNode[heap.length * 2];
+            System.arraycopy(heap, 0, larger, 0, size);
+            heap = larger;
+        }
+
+        index.put(node.getKey(), node);
+        place(node, size++);
+        siftUp(node.openIndex);
+    }
+
+    public GearBallNode poll() {
+        if (size == 0) return null;
+
+        GearBallNode lowest = heap[0];
+        GearBallNode last = heap[--size];
+        heap[size] = null;
+
+        if (size > 0) {
+            place(last, 0);
+            siftDown(0);
+        }
+
+        lowest.openIndex = -1;
+        index.remove(lowest.getKey());
+        return lowest;
+    }
+
+    public GearBallNode get(GearBallState key) {
+        return index.get(key);
+    }
+
+    public void decreaseKey(GearBallNode oldNode, GearBallNode newNode) {
+        int position = oldNode.openIndex;
+        oldNode.openIndex = -1;
+
+        index.put(newNode.getKey(), newNode);
+        place(newNode, position);
+        // the new node's h value may differ from the old one's, so its priority can be higher
+        // as well as lower; at most one of these moves it
+        siftUp(position);
+        siftDown(newNode.openIndex);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            heap[i].openIndex = -1;
+            heap[i] = null;
+        }
+
+        size = 0;
+        index.clear();
+    }
+
+    /**
+     * Puts a node at a position in the heap and records the position on the node.
+     */
+    private void place(GearBallNode node, int position) {
+        heap[position] = node;
+        node.openIndex = position;
+    }
+
+    /**
+     * Moves the node at a position up until its parent's f value is no higher.
+     */
+    private void siftUp(int position) {
+        GearBallNode node = heap[position];
+
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (heap[parent].compareTo(node) <= 0) break;
+
+            place(heap[parent], position);
+            position = parent;
+        }
+
+        place(node, position);
+    }
+
+    /**
+     * Moves the node at a position down until neither child has a lower f value.
+     */
+    private void siftDown(int position) {
+        GearBallNode node = heap[position];
+
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) break;
+
+            if (child + 1 < size && heap[child + 1].compareTo(heap[child]) < 0)
+                child++;
+            if (heap[child].compareTo(node) >= 0) break;
+
+            place(heap[child], position);
+            position = child;
+        }
+
+        place(node, position);
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * File Name        GearBallHeuristic.java
+ * Purpose          Computes h(node), the estimate of the moves left to solve a gear ball, for the searches.
+ */
+
+package gearball;
+
+public class GearBallHeuristic {
+    // pattern database for the gears, or null to use only the counting heuristic
+    private final GearBallGearPatternDatabase gearDatabase;
+    // pattern database for the corner, edge and center stickers, or null to leave it out
+    private final GearBallStickerPatternDatabase stickerDatabase;
+
+    /**
+     * Constructor for GearBallHeuristic using only the counting heuristic.
+     */
+    public GearBallHeuristic() {
+        this(null, null);
+    }
+
+    /**
+     * Constructor for GearBallHeuristic
+     * @param gearDatabase The gear pattern database to combine with the counting heuristic,
+     *                     or null to leave it out
+     * @param stickerDatabase The sticker pattern database to combine with the counting
+     *                        heuristic, or null to leave it out
+     */
+    public GearBallHeuristic(GearBallGearPatternDatabase gearDatabase,
+                             GearBallStickerPatternDatabase stickerDatabase) {
+        this.gearDatabase = gearDatabase;
+        this.stickerDatabase = stickerDatabase;
+    }
+
+    /**
+     * Calculates h(node) for a configuration. None of the bounds ever overestimates the
+     * moves left, so neither does the largest of them.
+     * @param configuration The configuration of the gear ball.
+     * @return Integer value for h(node)
+     */
+    public int getHValue(GearBall configuration) {
+        int value = getCountingHValue(configuration);
+
+        if (gearDatabase != null)
+            value = Math.max(value, gearDatabase.getHValue(configuration));
+
+        if (stickerDatabase != null)
+            value = Math.max(value, stickerDatabase.getHValue(configuration));
+
+        return value;
+    }
+
+    /**
+     * Calculates h(node) from the squares out of place and the gears not in state 0.
+     * See documentation for more information on heuristic.
+     * @param configuration The configuration of the gear ball.
+     * @return Integer value for h(node)
+     */
+    public static int getCountingHValue(GearBall configuration) {
+        int h1;
+        int h2;
+
+        // both counts are kept up to date by GearBall.rotate, so neither scans the gear ball
+        h1 = (int) Math.ceil(configuration.getNumSquaresOutOfPlace() / 24.0);
+
+        h2 = (int) Math.floor(configuration.getNumGearsNotInStateZero() / 4.0);
+
+        return Math.max(h1, h2);
+    }
+}
@@ -0,0 +1,305 @@
+/**
+ * File Name        GearBallIDAStar.java
+ * Purpose          A class that implements the iterative deepening A* algorithm for the gear ball.
+ */
+
+package gearball;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class GearBallIDAStar {
+    // returned by search() when a solution has been found
+    private static final int FOUND = -1;
+
+    // the single gear ball that moves are made and undone on during the search
+    private GearBall gearBall;
+    // the moves made from the root to reach the current configuration
+    private int[] path = new int[32];
+    // length of the solution once one is found
+    private int solutionDepth = -1;
+    // nodes visited in the current iteration and in all iterations
+    private long nodesThisIteration = 0;
+    private long nodesVisited = 0;
+    // f bound, nodes visited and time taken (ms) for each iteration
+    private ArrayList<long[]> iterations = new ArrayList<>();
+    // total time taken by the search in milliseconds
+    private long elapsedMillis = 0;
+    // computes h(node) for each configuration
+    private GearBallHeuristic heuristic;
+    // the moves that can be skipped after the last few moves
+    private GearBallMovePruning pruning = GearBallMovePruning.getTreeSearchTable();
+    // whether performSearch prints when it starts
+    private boolean printProgress = true;
+    // the most nodes, heap and time the search may use
+    private GearBallSearchBudget budget = new GearBallSearchBudget();
+    // set to the reason the search gave up once it has used its budget
+    private GearBallSearchResult.Status stopped;
+    // the lowest h(node) visited and the moves to the node it was first seen at
+    private int bestHValue = Integer.MAX_VALUE;
+    private int[] bestMoves = new int[0];
+    // live counters of the search's progress, or null if nobody is watching
+    private GearBallSearchMetrics metrics;
+    // the states already searched below and how far each is from a solution, or null to
+    // search every state each time it is reached
+    private GearBallTranspositionTable table;
+
+    /**
+     * Constructor for GearBallIDAStar
+     * @param rootGB The gear ball configuration to solve; it is not modified
+     */
+    public GearBallIDAStar(GearBall rootGB) {
+        this(rootGB, new GearBallHeuristic());
+    }
+
+    /**
+     * Constructor for GearBallIDAStar
+     * @param rootGB The gear ball configuration to solve; it is not modified
+     * @param heuristic Computes h(node); it must never overestimate for the solution to be optimal
+     */
+    public GearBallIDAStar(GearBall rootGB, GearBallHeuristic heuristic) {
+        this.gearBall = new GearBall(rootGB);
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * Performs the IDA* search algorithm on the gear ball: repeated depth-first searches,
+     * each cut off where f(node) = g(node) + h(node) exceeds a bound, with the bound raised
+     * to the lowest f value cut off by the previous search.
+     * @return True if a solution is found, false if no solution is found.
+     */
+    public boolean performSearch() {
+        return performSearch(new GearBallSearchBudget()).isSolved();
+    }
+
+    /**
+     * Performs the IDA* search algorithm on the gear ball, giving up once it has used its budget.
+     * @param budget The most nodes, heap and time the search may use; cancelling it from
+     *               another thread, or interrupting the search's thread, stops the search
+     * @return The solution if one is found, otherwise why the search stopped and the closest
+     *         it came to a solution
+     */
+    public GearBallSearchResult performSearch(GearBallSearchBudget budget) {
+        this.budget = budget;
+        budget.start();
+
+        if (printProgress) {
+            GearBallAStar.printSearchStart("Searching. This may take a while...");
+        }
+
+        long searchStart = System.currentTimeMillis();
+        int bound = heuristic.getHValue(gearBall);
+
+        while (true) {
+            long iterationStart = System.currentTimeMillis();
+            nodesThisIteration = 0;
+            if (metrics != null) metrics.setFBound(bound);
+
+            int result = search(0, bound, GearBallMovePruning.getInitialState());
+
+            long now = System.currentTimeMillis();
+            iterations.add(new long[]{bound, nodesThisIteration, now - iterationStart});
+            elapsedMillis = now - searchStart;
+
+            if (result == FOUND) return getResult(GearBallSearchResult.Status.SOLVED, bound);
+            if (stopped != null) return getResult(stopped, bound);
+            // nothing was cut off, so there is nowhere left to search
+            if (result == Integer.MAX_VALUE) return getResult(GearBallSearchResult.Status.EXHAUSTED, bound);
+
+            bound = result;
+        }
+    }
+
+    /**
+     * Describes where the search has got to.
+     * @param status Why the search stopped.
+     * @param bound The f bound of the last iteration.
+     * @return The result, with the solution or the moves to the node with the lowest h visited.
+     */
+    private GearBallSearchResult getResult(GearBallSearchResult.Status status, int bound) {
+        List<Integer> moves = new ArrayList<>();
+
+        if (status == GearBallSearchResult.Status.SOLVED) {
+            moves = getSolutionMoves();
+            bestHValue = 0;
+        } else {
+            for (int move : bestMoves)
+                moves.add(move);
+        }
+
+        return new GearBallSearchResult(status, moves, bestHValue, bound, nodesVisited, 0, 0, elapsedMillis);
+    }
+
+    /**
+     * Depth-first search below the current configuration.
+     * @param g The number of moves made from the root.
+     * @param bound The f bound for this iteration.
+     * @param history The last moves that led to this configuration, as kept by GearBallMovePruning.
+     * @return FOUND if a solution was found, otherwise the lowest f value that exceeded the bound
+     */
+    private int search(int g, int bound, int history) {
+        nodesThisIteration++;
+        nodesVisited++;
+
+        // give up, leaving the search unsolved, once the budget is used up or the thread
+        // has been interrupted
+        if (stopped != null || (stopped = budget.check(nodesVisited)) != null) return Integer.MAX_VALUE;
+
+        int h = heuristic.getHValue(gearBall);
+        int f = g + h;
+
+        if (h < bestHValue) {
+            bestHValue = h;
+            bestMoves = Arrays.copyOf(path, g);
+        }
+
+        if (metrics != null) {
+            metrics.nodeExpanded();
+            metrics.nodeGenerated(h);
+            metrics.setOpenSize(g);
+        }
+
+        if (f > bound) return f;
+
+        if (gearBall.isSolved()) {
+            solutionDepth = g;
+            return FOUND;
+        }
+
+        // a configuration searched below before, in this iteration or an earlier one, may be
+        // known to be further from a solution than h says; if that puts it past the bound
+        // there is no need to search below it again
+        long key = 0;
+        if (table != null) {
+            key = GearBallTranspositionTable.getKey(gearBall.getState().longHash(), history);
+            long entry = table.probe(key);
+
+            if (entry != GearBallTranspositionTable.MISS) {
+                int distance = GearBallTranspositionTable.getDistance(entry);
+                if (distance == Integer.MAX_VALUE) return Integer.MAX_VALUE;
+
+                if (g + distance > bound) {
+                    if (metrics != null) metrics.duplicateHit();
+                    return g + distance;
+                }
+            }
+        }
+
+        if (g == path.length) {
+            int[] longer = new int[path.length * 2];
+            System.arraycopy(path, 0, longer, 0, path.length);
+            path = longer;
+        }
+
+        int lowestCutOff = Integer.MAX_VALUE;
+
+        for (int moveNum = 0; moveNum < GearBallMoveTable.NUM_MOVES; moveNum++) {
+            // never make a sequence of moves that a shorter or earlier one has the same effect as,
+            // such as undoing the move that was just made
+            if (!pruning.isAllowed(history, moveNum)) continue;
+
+            gearBall.rotate(moveNum);
+            path[g] = moveNum;
+
+            int result = search(g + 1, bound, GearBallMovePruning.getNextState(history, moveNum));
+
+            // leave the gear ball solved once a solution is found
+            if (result == FOUND) return FOUND;
+
+            gearBall.rotate(GearBallMoveTable.inverse(moveNum));
+
+            if (result < lowestCutOff)
+                lowestCutOff = result;
+        }
+
+        // a search cut short by the budget has not found how far the configuration is from a solution
+        if (table != null && stopped == null)
+            table.store(key, g, lowestCutOff);
+
+        return lowestCutOff;
+    }
+
+    /**
+     * Gets the configuration the search ended on.
+     * @return The solved GearBall once a solution is found
+     */
+    public GearBall getCurrentNode() {
+        return new GearBall(gearBall);
+    }
+
+    /**
+     * Sets whether performSearch prints when it starts; batch solves turn this off.
+     * @param printProgress true to print, false to stay quiet
+     */
+    public void setPrintProgress(boolean printProgress) {
+        this.printProgress = printProgress;
+    }
+
+    /**
+     * Sets the counters the search updates as it runs, so that its progress can be watched
+     * while it is still searching. Every node visited counts as both generated and expanded,
+     * and the open size is the depth of the node being visited.
+     * @param metrics The metrics to update, or null to keep no metrics
+     */
+    public void setMetrics(GearBallSearchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets the table of configurations already searched below, so that one reached again by
+     * another sequence of moves is only searched again if the bound has grown past how far it
+     * is known to be from a solution. The table holds what it knows about each configuration,
+     * not about the configuration being solved, so it can be kept for solving other
+     * configurations, and shared with other searches running at the same time.
+     * @param table The table to use, or null to search every configuration each time it is reached
+     */
+    public void setTranspositionTable(GearBallTranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * @return true if the search gave up because its thread was interrupted or its budget cancelled
+     */
+    public boolean wasInterrupted() {
+        return stopped == GearBallSearchResult.Status.CANCELLED;
+    }
+
+    public int getSolutionDepth() {
+        return solutionDepth;
+    }
+
+    /**
+     * Gets the moves from the root to the solution.
+     * @return The simplified move numbers in the order they are made from the root.
+     */
+    public List<Integer> getSolutionMoves() {
+        ArrayList<Integer> moves = new ArrayList<>();
+
+        for (int i = 0; i < solutionDepth; i++)
+            moves.add(path[i]);
+
+        return moves;
+    }
+
+    public long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    /**
+     * Prints the nodes visited and time taken by each iteration, and the totals.
+     */
+    public void printSearchReport() {
+        for (long[] iteration : iterations) {
+            System.out.println("f bound " + iteration[0] + ": " + iteration[1] + " nodes visited in "
+                               + (iteration[2] / 1000.0) + " seconds");
+        }
+
+        System.out.println("Number of iterations: " + iterations.size());
+        System.out.println("Number of nodes visited: " + nodesVisited);
+        System.out.println("Search time (seconds): " + (elapsedMillis / 1000.0));
+
+        if (table != null)
+            table.printReport();
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * File Name        GearBallMetricsReporter.java
+ * Purpose          Writes a search's metrics as a JSON line at a fixed interval from a background thread.
+ */
+
+package gearball;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class GearBallMetricsReporter implements AutoCloseable {
+    // time between reports when the gearball.metrics.interval property is not set
+    public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+
+    // the metrics being reported
+    private final GearBallSearchMetrics metrics;
+    // where each report is written
+    private final PrintWriter output;
+    // whether output is closed along with the reporter
+    private final boolean closeOutput;
+    // runs the reports
+    private final ScheduledExecutorService scheduler;
+    // the elapsed time and node counts at the last report, for the rates since then
+    private long lastMillis = 0;
+    private long lastExpanded = 0;
+    private long lastGenerated = 0;
+
+    /**
+     * Constructor for GearBallMetricsReporter. Reporting starts right away.
+     * @param metrics The metrics to report.
+     * @param output Where each report is written as one JSON line.
+     * @param intervalMillis The time between reports, in milliseconds.
+     */
+    public GearBallMetricsReporter(GearBallSearchMetrics metrics, PrintWriter output, long intervalMillis) {
+        this(metrics, output, intervalMillis, false);
+    }
+
+    private GearBallMetricsReporter(GearBallSearchMetrics metrics, PrintWriter output, long intervalMillis,
+                                    boolean closeOutput) {
+        if (intervalMillis < 1) {
+            System.err.println("GearBallMetricsReporter: error - Invalid interval: " + intervalMillis);
+            System.exit(1);
+        }
+
+        this.metrics = metrics;
+        this.output = output;
+        this.closeOutput = closeOutput;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GearBallMetricsReporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduler.scheduleAtFixedRate(() -> report(false), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts reporting if the gearball.metrics system property is set, to the file it names
+     * or to standard error if it is "-", every gearball.metrics.interval milliseconds.
+     * @param metrics The metrics to report.
+     * @return The reporter, or null if the property is not set.
+     */
+    public static GearBallMetricsReporter startFromProperties(GearBallSearchMetrics metrics) {
+        String target = System.getProperty("gearball.metrics");
+        if (target == null) return null;
+
+        long intervalMillis = Long.getLong("gearball.metrics.interval", DEFAULT_INTERVAL_MILLIS);
+
+        if (target.equals("-"))
+            return new GearBallMetricsReporter(metrics, new PrintWriter(new OutputStreamWriter(System.err)),
+                                               intervalMillis, false);
+
+        try {
+            return new GearBallMetricsReporter(metrics, new PrintWriter(new FileWriter(target, true)),
+                                               intervalMillis, true);
+        } catch (IOException e) {
+            System.err.println("GearBallMetricsReporter: error - Could not open " + target + ": " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /**
+     * Stops reporting and writes one last report, marked final.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        report(true);
+
+        if (closeOutput)
+            output.close();
+    }
+
+    /**
+     * Writes one report: the totals, the rates since the last report, the sizes of the open
+     * and closed lists, the f bound, the heap in use, the duplicate hit and path improvement
+     * rates and the number of generated nodes with each h value.
+     * @param last true for the report written when the search is over
+     */
+    private synchronized void report(boolean last) {
+        long millis = metrics.getElapsedMillis();
+        long expanded = metrics.getNodesExpanded();
+        long generated = metrics.getNodesGenerated();
+        double seconds = Math.max(millis - lastMillis, 1) / 1000.0;
+
+        StringBuilder line = new StringBuilder();
+        line.append("{\"time\":").append(System.currentTimeMillis())
+            .append(",\"elapsedMillis\":").append(millis)
+            .append(",\"nodesExpanded\":").append(expanded)
+            .append(",\"nodesGenerated\":").append(generated)
+            .append(",\"expandedPerSecond\":").append(Math.round((expanded - lastExpanded) / seconds))
+            .append(",\"generatedPerSecond\":").append(Math.round((generated - lastGenerated) / seconds))
+            .append(",\"openSize\":").append(metrics.getOpenSize())
+            .append(",\"closedSize\":").append(metrics.getClosedSize())
+            .append(",\"fBound\":").append(metrics.getFBound())
+            .append(",\"heapUsedBytes\":").append(metrics.getHeapUsedBytes())
+            .append(",\"heapMaxBytes\":").append(metrics.getHeapMaxBytes())
+            .append(",\"duplicateHitRate\":").append(String.format(Locale.ROOT, "%.4f", metrics.getDuplicateHitRate()))
+            .append(",\"pathImprovementRate\":")
+            .append(String.format(Locale.ROOT, "%.4f", metrics.getPathImprovementRate()))
+            .append(",\"hHistogram\":[");
+
+        long[] histogram = metrics.getHeuristicHistogram();
+        for (int h = 0; h < histogram.length; h++) {
+            if (h > 0) line.append(',');
+            line.append(histogram[h]);
+        }
+
+        line.append("],\"final\":").append(last).append('}');
+
+        output.println(line);
+        output.flush();
+
+        lastMillis = millis;
+        lastExpanded = expanded;
+        lastGenerated = generated;
+    }
+}
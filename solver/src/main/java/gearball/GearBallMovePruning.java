@@ -0,0 +1,285 @@
+/**
+ * File Name        GearBallMovePruning.java
+ * Purpose          Precomputed tables of which moves a search may skip given the last moves made.
+ */
+
+package gearball;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class GearBallMovePruning {
+    // number of earlier moves the tables look at
+    private static final int HISTORY = 3;
+    // a history slot holding no move yet
+    private static final int NO_MOVE = GearBallMoveTable.NUM_MOVES;
+    // number of values a history slot can hold
+    private static final int SLOT_VALUES = GearBallMoveTable.NUM_MOVES + 1;
+    // number of histories of the last HISTORY moves
+    private static final int NUM_STATES = SLOT_VALUES * SLOT_VALUES * SLOT_VALUES;
+
+    // sequences of moves are compared by their exact effect, composed from the move tables:
+    // the block position each block came from, then the gear position each gear came from,
+    // how far it was turned and whether it was turned around
+    private static final int NUM_BLOCKS = 6 * GearBallState.BLOCKS_PER_FACE;
+    private static final int GEAR_SOURCE = NUM_BLOCKS;
+    private static final int GEAR_DELTA = GEAR_SOURCE + GearBallState.NUM_GEARS;
+    private static final int GEAR_FLIPPED = GEAR_DELTA + GearBallState.NUM_GEARS;
+    private static final int EFFECT_LENGTH = GEAR_FLIPPED + GearBallState.NUM_GEARS;
+
+    // the table for searches that never look for repeated states, and the table for those that do
+    private static final GearBallMovePruning TREE_SEARCH_TABLE;
+    private static final GearBallMovePruning GRAPH_SEARCH_TABLE;
+
+    static {
+        // the shortest, then first in order, sequence of at most HISTORY + 1 moves that has
+        // each effect, and the effect of each sequence, keyed by its code
+        HashMap<String, int[]> firstSequence = new HashMap<>();
+        HashMap<Integer, String> effects = new HashMap<>();
+
+        for (int length = 0; length <= HISTORY + 1; length++)
+            addSequences(new int[length], 0, identity(), firstSequence, effects);
+
+        TREE_SEARCH_TABLE = new GearBallMovePruning(firstSequence, effects, false);
+        GRAPH_SEARCH_TABLE = new GearBallMovePruning(firstSequence, effects, true);
+    }
+
+    // whether each move may follow each history
+    private final boolean[][] allowed = new boolean[NUM_STATES][GearBallMoveTable.NUM_MOVES];
+
+    /**
+     * Constructor for GearBallMovePruning. A move is skipped when the last few moves followed by
+     * it could be replaced by a shorter sequence with the same effect or, unless onlyShorter is
+     * set, by a sequence of the same length that comes first in order.
+     * @param firstSequence The first sequence with each effect.
+     * @param effects The effect of each sequence, keyed by its code.
+     * @param onlyShorter true to skip only moves whose sequence can be made shorter
+     */
+    private GearBallMovePruning(HashMap<String, int[]> firstSequence, HashMap<Integer, String> effects,
+                                boolean onlyShorter) {
+        for (int state = 0; state < NUM_STATES; state++) {
+            int[] history = decode(state);
+
+            for (int move = 0; move < GearBallMoveTable.NUM_MOVES; move++) {
+                allowed[state][move] = true;
+
+                // every run of the last moves ending with this one must be the first of its kind
+                for (int start = HISTORY - 1; start >= 0 && history[start] != NO_MOVE; start--) {
+                    int[] sequence = new int[HISTORY - start + 1];
+                    System.arraycopy(history, start, sequence, 0, HISTORY - start);
+                    sequence[sequence.length - 1] = move;
+
+                    int[] first = firstSequence.get(effects.get(encode(sequence)));
+                    boolean replaceable = onlyShorter ? first.length < sequence.length
+                                                      : !Arrays.equals(first, sequence);
+
+                    if (replaceable) {
+                        allowed[state][move] = false;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the table for searches that visit every path, such as IDA*. Of all the sequences
+     * with the same effect it keeps only the shortest one that comes first in order, so it
+     * prunes the most, but it could skip the only path a search keeps to a state when the search
+     * drops states it has seen before.
+     * @return The pruning table.
+     */
+    public static GearBallMovePruning getTreeSearchTable() {
+        return TREE_SEARCH_TABLE;
+    }
+
+    /**
+     * Gets the table for searches that drop states they have seen before, such as A*. It only
+     * skips moves that make a sequence which a shorter one could replace, which never skips a
+     * move on the path a search reached a state by when that path is a shortest one.
+     * @return The pruning table.
+     */
+    public static GearBallMovePruning getGraphSearchTable() {
+        return GRAPH_SEARCH_TABLE;
+    }
+
+    /**
+     * @return The history before any move has been made.
+     */
+    public static int getInitialState() {
+        return NUM_STATES - 1;
+    }
+
+    /**
+     * Gets the history after a move is made.
+     * @param state The history before the move.
+     * @param move The simplified move number (0 - 11).
+     * @return The history after the move.
+     */
+    public static int getNextState(int state, int move) {
+        return (state % (SLOT_VALUES * SLOT_VALUES)) * SLOT_VALUES + move;
+    }
+
+    /**
+     * Gets the history of the moves that led to a search node, by following its parents.
+     * @param node The node.
+     * @return The history at the node.
+     */
+    public static int getState(GearBallNode node) {
+        int[] history = {NO_MOVE, NO_MOVE, NO_MOVE};
+
+        for (int slot = HISTORY - 1; slot >= 0 && node.getParent() != null; slot--) {
+            history[slot] = node.getMove();
+            node = node.getParent();
+        }
+
+        int state = 0;
+        for (int move : history)
+            state = state * SLOT_VALUES + move;
+        return state;
+    }
+
+    /**
+     * Checks if a search needs to make a move.
+     * @param state The history of the last moves.
+     * @param move The simplified move number (0 - 11).
+     * @return true if the move must be searched, false if it can be skipped
+     */
+    public boolean isAllowed(int state, int move) {
+        return allowed[state][move];
+    }
+
+    /**
+     * Counts the sequences of moves of a length that the table keeps.
+     * @param length The number of moves.
+     * @return The number of sequences kept.
+     */
+    public long countSequences(int length) {
+        long[] counts = new long[NUM_STATES];
+        counts[getInitialState()] = 1;
+
+        for (int step = 0; step < length; step++) {
+            long[] next = new long[NUM_STATES];
+
+            for (int state = 0; state < NUM_STATES; state++) {
+                if (counts[state] == 0) continue;
+
+                for (int move = 0; move < GearBallMoveTable.NUM_MOVES; move++) {
+                    if (allowed[state][move])
+                        next[getNextState(state, move)] += counts[state];
+                }
+            }
+
+            counts = next;
+        }
+
+        long total = 0;
+        for (long count : counts)
+            total += count;
+        return total;
+    }
+
+    /**
+     * Adds every sequence of a length to the map of first sequences, in order, composing the
+     * effect of each move with the effect of the moves before it.
+     * @param sequence The sequence being filled in.
+     * @param position The position to fill next.
+     * @param effect The effect of the moves before position.
+     * @param firstSequence The first sequence with each effect.
+     * @param effects The effect of each sequence, keyed by its code.
+     */
+    private static void addSequences(int[] sequence, int position, int[] effect,
+                                     HashMap<String, int[]> firstSequence, HashMap<Integer, String> effects) {
+        if (position == sequence.length) {
+            String key = toKey(effect);
+
+            effects.put(encode(sequence), key);
+            firstSequence.putIfAbsent(key, sequence.clone());
+            return;
+        }
+
+        for (int move = 0; move < GearBallMoveTable.NUM_MOVES; move++) {
+            sequence[position] = move;
+            addSequences(sequence, position + 1, then(effect, move), firstSequence, effects);
+        }
+    }
+
+    /**
+     * @return The effect of making no moves: every block and gear where it started.
+     */
+    private static int[] identity() {
+        int[] effect = new int[EFFECT_LENGTH];
+
+        for (int position = 0; position < NUM_BLOCKS; position++)
+            effect[position] = position;
+        for (int gear = 0; gear < GearBallState.NUM_GEARS; gear++)
+            effect[GEAR_SOURCE + gear] = gear;
+
+        return effect;
+    }
+
+    /**
+     * Composes an effect with one more move. Two sequences with the same effect leave every
+     * configuration the same, since a configuration is its block colors and gear states.
+     * @param effect The effect of the moves made so far.
+     * @param move The simplified move number (0 - 11) made next.
+     * @return The effect of the moves followed by the move.
+     */
+    private static int[] then(int[] effect, int move) {
+        int[] next = new int[EFFECT_LENGTH];
+
+        for (int position = 0; position < NUM_BLOCKS; position++)
+            next[position] = effect[GearBallMoveTable.getBlockSource(move, position)];
+
+        for (int gear = 0; gear < GearBallState.NUM_GEARS; gear++) {
+            int source = GearBallMoveTable.getGearSource(move, gear);
+
+            next[GEAR_SOURCE + gear] = effect[GEAR_SOURCE + source];
+            next[GEAR_DELTA + gear] = (effect[GEAR_DELTA + source] + GearBallMoveTable.getGearDelta(move, gear))
+                                      % GearBallState.NUM_GEAR_STATES;
+            next[GEAR_FLIPPED + gear] = effect[GEAR_FLIPPED + source] ^ (GearBallMoveTable.isGearFlipped(move, gear) ? 1 : 0);
+        }
+
+        return next;
+    }
+
+    /**
+     * @return An effect as a string, one char per value, to key the map of first sequences.
+     */
+    private static String toKey(int[] effect) {
+        char[] key = new char[effect.length];
+
+        for (int i = 0; i < effect.length; i++)
+            key[i] = (char) effect[i];
+
+        return new String(key);
+    }
+
+    /**
+     * Numbers a sequence of moves so that no two sequences share a number.
+     * @param sequence The simplified move numbers.
+     * @return The sequence's code.
+     */
+    private static int encode(int[] sequence) {
+        int code = 0;
+        for (int move : sequence)
+            code = code * SLOT_VALUES + move + 1;
+        return code;
+    }
+
+    /**
+     * Splits a history into its moves, oldest first.
+     * @param state The history.
+     * @return The last HISTORY moves, NO_MOVE where fewer have been made.
+     */
+    private static int[] decode(int state) {
+        int[] history = new int[HISTORY];
+
+        for (int slot = HISTORY - 1; slot >= 0; slot--) {
+            history[slot] = state % SLOT_VALUES;
+            state /= SLOT_VALUES;
+        }
+
+        return history;
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * File Name        GearBallNode.java
+ * Purpose          A node in the search graph of the gear ball, linked to the node it came from.
+ */
+
+package gearball;
+
+public class GearBallNode implements Comparable<GearBallNode> {
+    // the packed configuration of the gear ball at this node, also used as its key
+    private GearBallState state;
+    // the node this node was generated from, or null for the root
+    private GearBallNode parent;
+    // the simplified move made on the parent's configuration to reach this node
+    private int move;
+    // g(node), the path length from the root, and h(node), the heuristic value
+    private int g;
+    private int h;
+    // f(node) = g(node) + h(node)
+    private int f;
+    // the value the open lists order nodes by: f(node), or g(node) + w * h(node) for weighted A*
+    private int priority;
+
+    // the state the open and closed lists find this node by, the same for every state
+    // symmetric to this node's; worked out on first use
+    private GearBallState key;
+    // position of this node in the open list holding it, or -1 when it is in none;
+    // maintained by the open list
+    protected int openIndex = -1;
+
+    /**
+     * Constructor for the GearBallNode.
+     * @param state The packed configuration of the gear ball at this node.
+     * @param parent The node this node was generated from, or null for the root.
+     * @param move The move made on the parent to reach this node, or -1 for the root.
+     * @param h The heuristic value of the configuration.
+     */
+    public GearBallNode(GearBallState state, GearBallNode parent, int move, int h) {
+        this(state, parent, move, h, 1.0);
+    }
+
+    /**
+     * Constructor for a GearBallNode that the open lists order by a weighted f value, which
+     * makes a search prefer nodes that look closer to a solution over nodes with shorter paths.
+     * @param state The packed configuration of the gear ball at this node.
+     * @param parent The node this node was generated from, or null for the root.
+     * @param move The move made on the parent to reach this node, or -1 for the root.
+     * @param h The heuristic value of the configuration.
+     * @param weight The weight w in g(node) + w * h(node), rounded to a whole number; 1 for A*.
+     */
+    public GearBallNode(GearBallState state, GearBallNode parent, int move, int h, double weight) {
+        this.state = state;
+        this.parent = parent;
+        this.move = move;
+        // the root is at depth 0; every other node is one move deeper than its parent
+        this.g = (parent == null) ? 0 : parent.g + 1;
+        this.h = h;
+        // calculate the f value
+        this.f = getFValue();
+        this.priority = (weight == 1.0) ? f : g + (int) Math.round(weight * h);
+    }
+
+    /**
+     * Gets the node this node was generated from.
+     * @return The parent node, or null for the root.
+     */
+    public GearBallNode getParent() {
+        return parent;
+    }
+
+    /**
+     * Gets the move made on the parent's configuration to reach this node.
+     * @return The simplified move number, or -1 for the root.
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * Gets h(node) for this node, where h is the heuristic value.
+     * @return Integer value for h(node)
+     */
+    public int getHValue() {
+        return h;
+    }
+
+    /**
+     * Gets g(node) where g is the path length to the node from the root.
+     * @return The path cost, g(node)
+     */
+    public int getGValue() {
+        return g;
+    }
+
+    /**
+     * Calculates f(node) = g(node) + h(node)
+     * @return Integer value of f(node)
+     */
+    public int getFValue() {
+        return this.getHValue() + this.getGValue();
+    }
+
+    /**
+     * Gets the value the open lists order this node by.
+     * @return f(node), or g(node) + w * h(node) for a node made with a weight w
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Gets the packed encoding of the configuration at this node.
+     * @return The packed state at this node.
+     */
+    public GearBallState getState() {
+        return state;
+    }
+
+    /**
+     * Gets the state the open and closed lists find this node by: the representative given by
+     * GearBallSymmetry, so that states which are symmetric to each other, and are solved in
+     * the same number of moves, are only searched once.
+     * @return The representative of the state at this node.
+     */
+    public GearBallState getKey() {
+        if (key == null)
+            key = GearBallSymmetry.getCanonical(state);
+
+        return key;
+    }
+
+    /**
+     * Compares this node to another node using the priority, which is the f(node) value
+     * unless the nodes were made with a weight. Implemented for the comparable interface
+     * to work, which is used for the open lists.
+     * @param that The other node being compared.
+     * @return -1 if the other node has a larger priority, 1 if this node has a larger priority
+     *         or 0 if the two nodes have the same priority.
+     */
+    public int compareTo(GearBallNode that) {
+        int difference = this.priority - that.priority;
+        if (difference < 0) return -1;
+        if (difference > 0) return 1;
+        return 0;
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * File Name        GearBallOpenList.java
+ * Purpose          The operations a search needs from its frontier of generated, unexpanded nodes.
+ */
+
+package gearball;
+
+public interface GearBallOpenList {
+    /**
+     * Adds a node whose key (GearBallNode.getKey) is not already in the open list.
+     * @param node The node to add.
+     */
+    void add(GearBallNode node);
+
+    /**
+     * Removes and returns the node with the lowest f value, or the lowest weighted f value
+     * for nodes made with a weight.
+     * @return The removed node, or null if the open list is empty.
+     */
+    GearBallNode poll();
+
+    /**
+     * Finds the node in the open list for a key.
+     * @param key The key to look up, as given by GearBallNode.getKey.
+     * @return The node with that key, or null if the key is not in the open list.
+     */
+    GearBallNode get(GearBallState key);
+
+    /**
+     * Replaces a node in the open list with a node for the same key reached by a shorter path.
+     * The key may stand for symmetric configurations with different h values, so the new node's
+     * priority is not necessarily lower than the old one's, and it must be reordered either way.
+     * @param oldNode The node currently in the open list.
+     * @param newNode The node to take its place, with a g value lower than oldNode's.
+     */
+    void decreaseKey(GearBallNode oldNode, GearBallNode newNode);
+
+    /**
+     * @return The number of nodes in the open list.
+     */
+    int size();
+
+    /**
+     * Removes every node, so the open list can be used for another search.
+     */
+    void clear();
+}
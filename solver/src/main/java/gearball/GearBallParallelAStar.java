@@ -0,0 +1,387 @@
+/**
+ * File Name        GearBallParallelAStar.java
+ * Purpose          A class that implements hash distributed A* (HDA*) for the gear ball, with every
+ *                  state owned by one of several worker threads.
+ */
+
+package gearball;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class GearBallParallelAStar {
+    // how long the coordinating thread waits between checks for termination, in nanoseconds
+    private static final long TERMINATION_CHECK_NANOS = 100000;
+    // the longest an idle worker parks before looking for work again, in nanoseconds; it is
+    // normally woken sooner by a worker that sends it a node
+    private static final long IDLE_PARK_NANOS = 1000000;
+
+    // the configuration being solved
+    private GearBall root;
+    // computes h(node) for each configuration; it must be safe to share between threads
+    private GearBallHeuristic heuristic;
+    // the moves that can be skipped after the last few moves; only those that make a sequence
+    // a shorter one could replace, since states reached again by another path are dropped
+    private GearBallMovePruning pruning = GearBallMovePruning.getGraphSearchTable();
+    // the workers, each owning the states whose hash maps to it
+    private Worker[] workers;
+
+    // number of nodes sent to a worker's inbox and not yet added to its open list
+    private final AtomicLong inFlight = new AtomicLong();
+    // incremented whenever an idle worker receives work, so a termination check can tell if
+    // any worker woke up while it was looking
+    private final AtomicLong activity = new AtomicLong();
+    // set once the search is over to stop the workers
+    private volatile boolean done = false;
+
+    // length of the shortest solution found so far and its last node
+    private volatile int bestLength = Integer.MAX_VALUE;
+    private GearBallNode solution;
+
+    // total time taken by the search in milliseconds
+    private long elapsedMillis = 0;
+
+    /**
+     * Constructor for GearBallParallelAStar using one worker per available processor.
+     * @param rootGB The gear ball configuration to solve; it is not modified
+     * @param heuristic Computes h(node); it must never overestimate for the solution to be optimal
+     */
+    public GearBallParallelAStar(GearBall rootGB, GearBallHeuristic heuristic) {
+        this(rootGB, Runtime.getRuntime().availableProcessors(), heuristic);
+    }
+
+    /**
+     * Constructor for GearBallParallelAStar
+     * @param rootGB The gear ball configuration to solve; it is not modified
+     * @param numThreads The number of worker threads
+     * @param heuristic Computes h(node); it must never overestimate for the solution to be optimal
+     */
+    public GearBallParallelAStar(GearBall rootGB, int numThreads, GearBallHeuristic heuristic) {
+        if (numThreads < 1) {
+            System.err.println("GearBallParallelAStar: error - Invalid number of threads: " + numThreads);
+            System.exit(1);
+        }
+
+        this.root = new GearBall(rootGB);
+        this.heuristic = heuristic;
+        this.workers = new Worker[numThreads];
+
+        for (int i = 0; i < numThreads; i++)
+            workers[i] = new Worker(i);
+    }
+
+    /**
+     * Performs HDA* on the gear ball. Each worker runs A* on the states it owns, sending
+     * every child it generates to the worker that owns the child's state. A worker keeps
+     * expanding until nothing it holds could lead to a solution shorter than the best found,
+     * and the search ends once every worker is in that position with no nodes left in transit,
+     * so the best solution is optimal.
+     * @return True if a solution is found, false if no solution is found.
+     */
+    public boolean performSearch() {
+        GearBallAStar.printSearchStart("Searching with " + workers.length + " threads. This may take a while...");
+
+        long searchStart = System.currentTimeMillis();
+
+        GearBallNode rootNode = new GearBallNode(root.getState(), null, -1, heuristic.getHValue(root));
+        workers[ownerOf(rootNode.getKey())].receive(rootNode);
+
+        for (Worker worker : workers)
+            worker.start();
+
+        while (!isFinished())
+            LockSupport.parkNanos(TERMINATION_CHECK_NANOS);
+
+        done = true;
+
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker);
+
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        elapsedMillis = System.currentTimeMillis() - searchStart;
+        return solution != null;
+    }
+
+    /**
+     * Checks if every worker is idle with no nodes in transit. Workers mark themselves busy
+     * before counting the activity and before taking a node out of transit, so if a worker woke
+     * up during the check, either its flag or the activity count shows it.
+     * @return true if the search is over
+     */
+    private boolean isFinished() {
+        long activityBefore = activity.get();
+
+        for (Worker worker : workers) {
+            if (!worker.idle) return false;
+        }
+
+        return inFlight.get() == 0 && activity.get() == activityBefore;
+    }
+
+    /**
+     * Records a solution if it is shorter than the best one found so far.
+     * @param node The solved node.
+     */
+    private synchronized void offerSolution(GearBallNode node) {
+        if (node.getGValue() < bestLength) {
+            solution = node;
+            bestLength = node.getGValue();
+        }
+    }
+
+    /**
+     * Gets the worker that owns a state, from bits of its hash that the open and closed
+     * lists do not rely on alone. Symmetric states are owned by the same worker.
+     * @param key The key of the state, as given by GearBallNode.getKey.
+     * @return The index of the owning worker.
+     */
+    private int ownerOf(GearBallState key) {
+        return (int) ((key.longHash() >>> 33) % workers.length);
+    }
+
+    /**
+     * Gets the configuration the solution ends on.
+     * @return The solved GearBall once a solution is found, otherwise the scramble
+     */
+    public GearBall getCurrentNode() {
+        return solution == null ? new GearBall(root) : solution.getState().toGearBall();
+    }
+
+    public int getSolutionDepth() {
+        return solution == null ? -1 : solution.getGValue();
+    }
+
+    /**
+     * Gets the moves from the root to the solution, rebuilt by following parent links.
+     * @return The simplified move numbers in the order they are made from the root.
+     */
+    public List<Integer> getSolutionMoves() {
+        ArrayList<Integer> moves = new ArrayList<>();
+        if (solution == null) return moves;
+
+        for (GearBallNode node = solution; node.getParent() != null; node = node.getParent())
+            moves.add(node.getMove());
+
+        Collections.reverse(moves);
+        return moves;
+    }
+
+    public long getNodesExpanded() {
+        long total = 0;
+
+        for (Worker worker : workers)
+            total += worker.expanded;
+
+        return total;
+    }
+
+    /**
+     * @return The number of nodes expanded per second over the whole search.
+     */
+    public double getNodesPerSecond() {
+        return getNodesExpanded() / Math.max(elapsedMillis / 1000.0, 0.001);
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Prints the nodes expanded by each worker, the throughput and the time taken.
+     */
+    public void printSearchReport() {
+        for (Worker worker : workers) {
+            System.out.println("Worker " + worker.id + ": " + worker.expanded + " nodes expanded, "
+                               + worker.sent + " sent to other workers");
+        }
+
+        System.out.println("Number of nodes expanded: " + getNodesExpanded());
+        System.out.printf("Nodes per second: %.0f%n", getNodesPerSecond());
+        System.out.println("Search time (seconds): " + (elapsedMillis / 1000.0));
+    }
+
+    /**
+     * Solves a scramble with GearBallAStar and then with GearBallParallelAStar and prints the
+     * throughput of each and the speedup.
+     * @param args The number of random moves to scramble with, the random seed, and optionally
+     *             the number of threads (one per available processor by default).
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: java gearball.GearBallParallelAStar <scramble moves> <seed> [threads]");
+            System.exit(1);
+        }
+
+        int numMoves = Integer.parseInt(args[0]);
+        Random random = new Random(Long.parseLong(args[1]));
+        int numThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        GearBall gearBall = new GearBall();
+        for (int i = 0; i < numMoves; i++)
+            gearBall.rotate(random.nextInt(GearBallMoveTable.NUM_MOVES));
+
+        GearBallHeuristic heuristic = new GearBallHeuristic(GearBallGearPatternDatabase.getInstance(),
+                                                            GearBallStickerPatternDatabase.getInstance());
+
+        // solve once with each search first so neither is timed while the JIT is still compiling it
+        new GearBallAStar(gearBall, GearBallClosedSet.DEFAULT_MAX_MEGABYTES, new GearBallHeapOpenList(),
+                          heuristic).performSearch();
+        new GearBallParallelAStar(gearBall, numThreads, heuristic).performSearch();
+
+        GearBallAStar sequential = new GearBallAStar(gearBall, GearBallClosedSet.DEFAULT_MAX_MEGABYTES,
+                                                     new GearBallHeapOpenList(), heuristic);
+        long startTime = System.currentTimeMillis();
+        sequential.performSearch();
+        long sequentialMillis = Math.max(System.currentTimeMillis() - startTime, 1);
+
+        GearBallParallelAStar parallel = new GearBallParallelAStar(gearBall, numThreads, heuristic);
+        parallel.performSearch();
+        long parallelMillis = Math.max(parallel.getElapsedMillis(), 1);
+
+        System.out.println();
+        System.out.printf("A*:          depth %d, %d nodes, %.0f nodes/sec, %.3f seconds%n",
+                          sequential.getSolutionDepth(), sequential.getNodesExpanded(),
+                          sequential.getNodesExpanded() * 1000.0 / sequentialMillis, sequentialMillis / 1000.0);
+        System.out.printf("Parallel A*: depth %d, %d nodes, %.0f nodes/sec, %.3f seconds (%d threads)%n",
+                          parallel.getSolutionDepth(), parallel.getNodesExpanded(),
+                          parallel.getNodesExpanded() * 1000.0 / parallelMillis, parallelMillis / 1000.0, numThreads);
+        System.out.printf("Speedup: %.2f%n", (double) sequentialMillis / parallelMillis);
+    }
+
+    /**
+     * A worker thread running A* on the states it owns.
+     */
+    private class Worker extends Thread {
+        // index of this worker
+        private final int id;
+        // nodes sent to this worker by the others; lock-free so senders never block
+        private final ConcurrentLinkedQueue<GearBallNode> inbox = new ConcurrentLinkedQueue<>();
+        // open list of the states this worker owns
+        private final GearBallOpenList frontier = new GearBallHeapOpenList();
+        // the lowest g each expanded state, or one symmetric to it, was expanded at; a state
+        // reached again by a shorter path, which can happen when nodes arrive out of order,
+        // is expanded again
+        private final HashMap<GearBallState, Integer> explored = new HashMap<>();
+        // gear ball the configuration being expanded is unpacked into
+        private final GearBall expanding = new GearBall();
+        // set while this worker has nothing to expand that could improve on the best solution
+        private volatile boolean idle = false;
+        // nodes expanded and sent to other workers
+        private volatile long expanded = 0;
+        private volatile long sent = 0;
+
+        private Worker(int id) {
+            super("GearBallParallelAStar-" + id);
+            this.id = id;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!done) {
+                GearBallNode message = inbox.poll();
+
+                if (message != null) {
+                    if (idle) {
+                        idle = false;
+                        activity.incrementAndGet();
+                    }
+                    receive(message);
+                    inFlight.decrementAndGet();
+                    continue;
+                }
+
+                GearBallNode node = frontier.poll();
+
+                if (node == null) {
+                    idle = true;
+
+                    // a sender wakes this worker only if it sees it idle, so the inbox is checked
+                    // again after the flag is set in case a node arrived just before
+                    if (inbox.isEmpty())
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    continue;
+                }
+
+                // nothing at or beyond the best solution's length can improve on it
+                if (node.getFValue() >= bestLength) continue;
+
+                Integer exploredG = explored.get(node.getKey());
+                if (exploredG != null && exploredG <= node.getGValue()) continue;
+                explored.put(node.getKey(), node.getGValue());
+
+                if (node.getState().isSolved()) {
+                    offerSolution(node);
+                    continue;
+                }
+
+                expand(node);
+            }
+        }
+
+        /**
+         * Generates the children of a node, keeping those this worker owns and sending the others.
+         * @param node The node to expand.
+         */
+        private void expand(GearBallNode node) {
+            expanded++;
+            node.getState().writeTo(expanding);
+            int history = GearBallMovePruning.getState(node);
+
+            for (int moveNum = 0; moveNum < GearBallMoveTable.NUM_MOVES; moveNum++) {
+                if (!pruning.isAllowed(history, moveNum)) continue;
+
+                expanding.rotate(moveNum);
+                GearBallState childState = expanding.getState();
+                int h = heuristic.getHValue(expanding);
+                expanding.rotate(GearBallMoveTable.inverse(moveNum));
+
+                GearBallNode child = new GearBallNode(childState, node, moveNum, h);
+                if (child.getFValue() >= bestLength) continue;
+
+                Worker owner = workers[ownerOf(child.getKey())];
+                if (owner == this) {
+                    receive(child);
+                } else {
+                    // counted before it is queued, so it is never seen as neither queued nor in transit
+                    inFlight.incrementAndGet();
+                    owner.inbox.add(child);
+                    sent++;
+
+                    if (owner.idle)
+                        LockSupport.unpark(owner);
+                }
+            }
+        }
+
+        /**
+         * Adds a node for a state this worker owns to its open list, unless the state has already
+         * been reached by a path at least as short.
+         * @param node The node to add.
+         */
+        private void receive(GearBallNode node) {
+            Integer exploredG = explored.get(node.getKey());
+            if (exploredG != null && exploredG <= node.getGValue()) return;
+
+            GearBallNode inFrontier = frontier.get(node.getKey());
+
+            if (inFrontier == null) {
+                frontier.add(node);
+            } else if (inFrontier.getGValue() > node.getGValue()) {
+                frontier.decreaseKey(inFrontier, node);
+            }
+        }
+    }
+}
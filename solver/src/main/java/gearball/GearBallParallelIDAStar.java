@@ -0,0 +1,348 @@
+/**
+ * File Name        GearBallParallelIDAStar.java
+ * Purpose          A class that implements iterative deepening A* for the gear ball with the
+ *                  subtrees below the root searched in parallel on a fork-join pool.
+ */
+
+package gearball;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class GearBallParallelIDAStar {
+    // returned by a search when a solution has been found
+    private static final int FOUND = -1;
+
+    // the configuration being solved
+    private GearBall root;
+    // computes h(node) for each configuration; it must be safe to share between threads
+    private GearBallHeuristic heuristic;
+    // the moves that can be skipped after the last few moves
+    private GearBallMovePruning pruning = GearBallMovePruning.getTreeSearchTable();
+    // the pool the subtrees are searched on
+    private ForkJoinPool pool;
+    // depth of the subtrees' roots below the root: 1 for the root's children, 2 for theirs
+    private int splitDepth;
+    // the moves from the root to a solution, set by the first subtree to find one
+    private AtomicReference<int[]> solution = new AtomicReference<>();
+    // nodes visited in the current iteration and in all iterations
+    private AtomicLong nodesThisIteration = new AtomicLong();
+    private long nodesVisited = 0;
+    // f bound, nodes visited and time taken (ms) for each iteration
+    private ArrayList<long[]> iterations = new ArrayList<>();
+    // total time taken by the search in milliseconds
+    private long elapsedMillis = 0;
+    // the states already searched below and how far each is from a solution, shared by all of
+    // the tasks, or null to search every state each time it is reached
+    private GearBallTranspositionTable table;
+
+    /**
+     * Constructor for GearBallParallelIDAStar using one thread per available processor and
+     * splitting the search at the root's children.
+     * @param rootGB The gear ball configuration to solve; it is not modified
+     * @param heuristic Computes h(node); it must never overestimate for the solution to be optimal
+     */
+    public GearBallParallelIDAStar(GearBall rootGB, GearBallHeuristic heuristic) {
+        this(rootGB, heuristic, Runtime.getRuntime().availableProcessors(), 1);
+    }
+
+    /**
+     * Constructor for GearBallParallelIDAStar
+     * @param rootGB The gear ball configuration to solve; it is not modified
+     * @param heuristic Computes h(node); it must never overestimate for the solution to be optimal
+     * @param numThreads The number of threads in the fork-join pool
+     * @param splitDepth 1 to search each of the root's children as a task, 2 to search each
+     *                   of their children as a task, which balances better on many threads
+     */
+    public GearBallParallelIDAStar(GearBall rootGB, GearBallHeuristic heuristic, int numThreads, int splitDepth) {
+        if (numThreads < 1) {
+            System.err.println("GearBallParallelIDAStar: error - Invalid number of threads: " + numThreads);
+            System.exit(1);
+        }
+        if (splitDepth != 1 && splitDepth != 2) {
+            System.err.println("GearBallParallelIDAStar: error - Invalid split depth: " + splitDepth);
+            System.exit(1);
+        }
+
+        this.root = new GearBall(rootGB);
+        this.heuristic = heuristic;
+        this.pool = new ForkJoinPool(numThreads);
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * Performs parallel IDA* on the gear ball. Each iteration searches every subtree below the
+     * split depth as its own task with the same f bound. Any solution within the bound is as
+     * short as any other, so the iteration stops as soon as one task finds one.
+     * @return True if a solution is found, false if no solution is found.
+     */
+    public boolean performSearch() {
+        GearBallAStar.printSearchStart("Searching with " + pool.getParallelism() + " threads. This may take a while...");
+
+        long searchStart = System.currentTimeMillis();
+
+        try {
+            if (root.isSolved()) {
+                solution.set(new int[0]);
+                return true;
+            }
+
+            int bound = heuristic.getHValue(root);
+
+            while (true) {
+                long iterationStart = System.currentTimeMillis();
+                nodesThisIteration.set(0);
+
+                int result = pool.invoke(new IterationTask(bound));
+
+                long now = System.currentTimeMillis();
+                nodesVisited += nodesThisIteration.get();
+                iterations.add(new long[]{bound, nodesThisIteration.get(), now - iterationStart});
+                elapsedMillis = now - searchStart;
+
+                if (result == FOUND) return true;
+                // nothing was cut off, so there is nowhere left to search
+                if (result == Integer.MAX_VALUE) return false;
+
+                bound = result;
+            }
+        } finally {
+            elapsedMillis = System.currentTimeMillis() - searchStart;
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Gets the configuration the search ended on.
+     * @return The solved GearBall once a solution is found, otherwise the scramble
+     */
+    public GearBall getCurrentNode() {
+        GearBall gearBall = new GearBall(root);
+
+        for (int move : getSolutionMoves())
+            gearBall.rotate(move);
+
+        return gearBall;
+    }
+
+    public int getSolutionDepth() {
+        return solution.get() == null ? -1 : solution.get().length;
+    }
+
+    /**
+     * Gets the moves from the root to the solution.
+     * @return The simplified move numbers in the order they are made from the root.
+     */
+    public List<Integer> getSolutionMoves() {
+        ArrayList<Integer> moves = new ArrayList<>();
+
+        if (solution.get() != null) {
+            for (int move : solution.get())
+                moves.add(move);
+        }
+
+        return moves;
+    }
+
+    public long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    /**
+     * Sets the table of configurations already searched below, which the tasks share without
+     * locking, so that a configuration reached again by any task is only searched again if
+     * the bound has grown past how far it is known to be from a solution.
+     * @param table The table to use, or null to search every configuration each time it is reached
+     */
+    public void setTranspositionTable(GearBallTranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Prints the nodes visited and time taken by each iteration, and the totals.
+     */
+    public void printSearchReport() {
+        for (long[] iteration : iterations) {
+            System.out.println("f bound " + iteration[0] + ": " + iteration[1] + " nodes visited in "
+                               + (iteration[2] / 1000.0) + " seconds");
+        }
+
+        System.out.println("Number of iterations: " + iterations.size());
+        System.out.println("Number of nodes visited: " + nodesVisited);
+        System.out.println("Threads: " + pool.getParallelism() + ", split at depth " + splitDepth);
+        System.out.println("Search time (seconds): " + (elapsedMillis / 1000.0));
+
+        if (table != null)
+            table.printReport();
+    }
+
+    /**
+     * One iteration: forks a task for every subtree at the split depth and combines their results.
+     */
+    private class IterationTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        // the f bound for this iteration
+        private final int bound;
+
+        private IterationTask(int bound) {
+            this.bound = bound;
+        }
+
+        @Override
+        protected Integer compute() {
+            ArrayList<SubtreeTask> tasks = new ArrayList<>();
+            int lowestCutOff = Integer.MAX_VALUE;
+
+            for (int first = 0; first < GearBallMoveTable.NUM_MOVES; first++) {
+                if (splitDepth == 1) {
+                    tasks.add(new SubtreeTask(new int[]{first}, bound));
+                    continue;
+                }
+
+                // the root's children are visited here rather than in a task, so cut them off here too
+                GearBall child = new GearBall(root);
+                child.rotate(first);
+                int f = 1 + heuristic.getHValue(child);
+                nodesThisIteration.incrementAndGet();
+
+                if (f > bound) {
+                    lowestCutOff = Math.min(lowestCutOff, f);
+                    continue;
+                }
+
+                if (child.isSolved()) {
+                    solution.compareAndSet(null, new int[]{first});
+                    return FOUND;
+                }
+
+                int history = GearBallMovePruning.getNextState(GearBallMovePruning.getInitialState(), first);
+
+                for (int second = 0; second < GearBallMoveTable.NUM_MOVES; second++) {
+                    if (!pruning.isAllowed(history, second)) continue;
+                    tasks.add(new SubtreeTask(new int[]{first, second}, bound));
+                }
+            }
+
+            invokeAll(tasks);
+
+            for (SubtreeTask task : tasks) {
+                int result = task.join();
+                if (result == FOUND) return FOUND;
+                lowestCutOff = Math.min(lowestCutOff, result);
+            }
+
+            return solution.get() != null ? FOUND : lowestCutOff;
+        }
+    }
+
+    /**
+     * A depth-first search of the subtree reached by a sequence of moves from the root, on its
+     * own gear ball.
+     */
+    private class SubtreeTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        // the f bound for this iteration
+        private final int bound;
+        // the gear ball that moves are made and undone on
+        private final GearBall gearBall;
+        // the moves made from the root to reach the current configuration
+        private int[] path = new int[32];
+        // the number of moves leading to this subtree
+        private final int prefixLength;
+        // the last moves leading to this subtree, as kept by GearBallMovePruning
+        private int prefixHistory = GearBallMovePruning.getInitialState();
+        // nodes visited, added to the iteration's count when the task ends
+        private long nodes = 0;
+
+        private SubtreeTask(int[] prefix, int bound) {
+            this.bound = bound;
+            this.gearBall = new GearBall(root);
+            this.prefixLength = prefix.length;
+
+            for (int i = 0; i < prefix.length; i++) {
+                gearBall.rotate(prefix[i]);
+                path[i] = prefix[i];
+                prefixHistory = GearBallMovePruning.getNextState(prefixHistory, prefix[i]);
+            }
+        }
+
+        @Override
+        protected Integer compute() {
+            int result = search(prefixLength, prefixHistory);
+            nodesThisIteration.addAndGet(nodes);
+            return result;
+        }
+
+        /**
+         * Depth-first search below the current configuration.
+         * @param g The number of moves made from the root.
+         * @param history The last moves that led to this configuration, as kept by GearBallMovePruning.
+         * @return FOUND if a solution was found, otherwise the lowest f value that exceeded the
+         *         bound; once another task has found a solution the value no longer matters
+         */
+        private int search(int g, int history) {
+            nodes++;
+
+            // another subtree already holds a solution within this bound
+            if (solution.get() != null) return FOUND;
+
+            int f = g + heuristic.getHValue(gearBall);
+            if (f > bound) return f;
+
+            if (gearBall.isSolved()) {
+                int[] moves = new int[g];
+                System.arraycopy(path, 0, moves, 0, g);
+                solution.compareAndSet(null, moves);
+                return FOUND;
+            }
+
+            // skip a configuration any task has already found to be past the bound
+            long key = 0;
+            if (table != null) {
+                key = GearBallTranspositionTable.getKey(gearBall.getState().longHash(), history);
+                long entry = table.probe(key);
+
+                if (entry != GearBallTranspositionTable.MISS) {
+                    int distance = GearBallTranspositionTable.getDistance(entry);
+                    if (distance == Integer.MAX_VALUE) return Integer.MAX_VALUE;
+                    if (g + distance > bound) return g + distance;
+                }
+            }
+
+            if (g == path.length) {
+                int[] longer = new int[path.length * 2];
+                System.arraycopy(path, 0, longer, 0, path.length);
+                path = longer;
+            }
+
+            int lowestCutOff = Integer.MAX_VALUE;
+
+            for (int moveNum = 0; moveNum < GearBallMoveTable.NUM_MOVES; moveNum++) {
+                // never make a sequence of moves that a shorter or earlier one has the same effect as
+                if (!pruning.isAllowed(history, moveNum)) continue;
+
+                gearBall.rotate(moveNum);
+                path[g] = moveNum;
+
+                int result = search(g + 1, GearBallMovePruning.getNextState(history, moveNum));
+
+                gearBall.rotate(GearBallMoveTable.inverse(moveNum));
+
+                if (result == FOUND) return FOUND;
+                if (result < lowestCutOff)
+                    lowestCutOff = result;
+            }
+
+            if (table != null)
+                table.store(key, g, lowestCutOff);
+
+            return lowestCutOff;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * File Name        GearBallSearchBudget.java
+ * Purpose          Limits on the nodes, heap and time a search may use, and a way to cancel it,
+ *                  which the searches check as they run.
+ */
+
+package gearball;
+
+public class GearBallSearchBudget {
+    // the heap, the clock and the cancel flag are checked once every this many nodes
+    private static final long CHECK_MASK = (1 << 8) - 1;
+
+    // the most nodes the search may expand
+    private long maxNodes = Long.MAX_VALUE;
+    // the largest fraction of the most heap the JVM may use that the search may fill
+    private double maxHeapFraction = 1.0;
+    // the longest the search may run, in milliseconds
+    private long timeLimitMillis = Long.MAX_VALUE;
+    // when the search must stop, from System.nanoTime, once it has started
+    private long deadlineNanos = Long.MAX_VALUE;
+    // set by cancel, from any thread
+    private volatile boolean cancelled = false;
+
+    /**
+     * Constructor for GearBallSearchBudget with no limits.
+     */
+    public GearBallSearchBudget() {
+    }
+
+    /**
+     * Constructor for GearBallSearchBudget
+     * @param maxNodes The most nodes the search may expand.
+     * @param maxHeapFraction The fraction of the most heap the JVM may use (0 - 1) past which
+     *                        the search stops; heap not yet collected counts as used.
+     * @param timeLimitMillis The longest the search may run, in milliseconds.
+     */
+    public GearBallSearchBudget(long maxNodes, double maxHeapFraction, long timeLimitMillis) {
+        setMaxNodes(maxNodes);
+        setMaxHeapFraction(maxHeapFraction);
+        setTimeLimitMillis(timeLimitMillis);
+    }
+
+    public void setMaxNodes(long maxNodes) {
+        if (maxNodes < 1) {
+            System.err.println("GearBallSearchBudget: error - Invalid node limit: " + maxNodes);
+            System.exit(1);
+        }
+
+        this.maxNodes = maxNodes;
+    }
+
+    public void setMaxHeapFraction(double maxHeapFraction) {
+        if (!(maxHeapFraction > 0 && maxHeapFraction <= 1)) {
+            System.err.println("GearBallSearchBudget: error - Invalid heap fraction: " + maxHeapFraction);
+            System.exit(1);
+        }
+
+        this.maxHeapFraction = maxHeapFraction;
+    }
+
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        if (timeLimitMillis < 1) {
+            System.err.println("GearBallSearchBudget: error - Invalid time limit: " + timeLimitMillis);
+            System.exit(1);
+        }
+
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Asks the search to stop. It stops within a few hundred nodes, as if it had run out of
+     * budget, and reports what it found so far.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Starts the clock; called by the search as it starts.
+     */
+    void start() {
+        long now = System.nanoTime();
+        long limitNanos = timeLimitMillis >= Long.MAX_VALUE / 1000000 ? Long.MAX_VALUE : timeLimitMillis * 1000000;
+
+        deadlineNanos = limitNanos > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + limitNanos;
+    }
+
+    /**
+     * Checks if the search has used up its budget, been cancelled, or had its thread interrupted.
+     * The node count is checked every time; the rest only every few hundred nodes.
+     * @param nodes The number of nodes the search has expanded.
+     * @return The reason to stop, or null to carry on.
+     */
+    GearBallSearchResult.Status check(long nodes) {
+        if (nodes >= maxNodes) return GearBallSearchResult.Status.NODE_LIMIT;
+        if ((nodes & CHECK_MASK) != 0) return null;
+
+        if (cancelled || Thread.currentThread().isInterrupted()) return GearBallSearchResult.Status.CANCELLED;
+        if (deadlineNanos != Long.MAX_VALUE && System.nanoTime() - deadlineNanos >= 0)
+            return GearBallSearchResult.Status.TIME_LIMIT;
+
+        if (maxHeapFraction < 1) {
+            Runtime runtime = Runtime.getRuntime();
+            long used = runtime.totalMemory() - runtime.freeMemory();
+
+            if (used > maxHeapFraction * runtime.maxMemory()) return GearBallSearchResult.Status.HEAP_LIMIT;
+        }
+
+        return null;
+    }
+}
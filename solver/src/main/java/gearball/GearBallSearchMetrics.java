@@ -0,0 +1,196 @@
+/**
+ * File Name        GearBallSearchMetrics.java
+ * Purpose          Live counters of a search's progress, safe to update from the search's threads
+ *                  while other threads read them.
+ */
+
+package gearball;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class GearBallSearchMetrics implements GearBallSearchMetricsMXBean {
+    // h values at or above this are counted together in the last entry of the histogram
+    public static final int MAX_HISTOGRAM_H = 24;
+
+    // when the metrics were created, from System.nanoTime
+    private final long startNanos = System.nanoTime();
+    // nodes expanded, nodes generated, generated nodes dropped as already reached, and
+    // generated nodes that reached a state already seen by a shorter path
+    private final LongAdder nodesExpanded = new LongAdder();
+    private final LongAdder nodesGenerated = new LongAdder();
+    private final LongAdder duplicateHits = new LongAdder();
+    private final LongAdder pathImprovements = new LongAdder();
+    // number of generated nodes with each h value
+    private final LongAdder[] heuristicCounts = new LongAdder[MAX_HISTOGRAM_H + 1];
+    // sizes of the open and closed lists and the f bound, as last set by the search
+    private volatile long openSize = 0;
+    private volatile long closedSize = 0;
+    private volatile int fBound = 0;
+    // the name the metrics are published under over JMX, or null if they are not
+    private ObjectName objectName;
+
+    /**
+     * Constructor for GearBallSearchMetrics
+     */
+    public GearBallSearchMetrics() {
+        for (int h = 0; h <= MAX_HISTOGRAM_H; h++)
+            heuristicCounts[h] = new LongAdder();
+    }
+
+    /**
+     * Counts a node taken off the open list and expanded, or visited by a depth-first search.
+     */
+    public void nodeExpanded() {
+        nodesExpanded.increment();
+    }
+
+    /**
+     * Counts a node generated by a move.
+     * @param h The node's h value.
+     */
+    public void nodeGenerated(int h) {
+        nodesGenerated.increment();
+        heuristicCounts[Math.min(h, MAX_HISTOGRAM_H)].increment();
+    }
+
+    /**
+     * Counts a generated node dropped because its state had already been reached.
+     */
+    public void duplicateHit() {
+        duplicateHits.increment();
+    }
+
+    /**
+     * Counts a generated node kept because it reached an already reached state by a shorter
+     * path, replacing the node on the open list or reopening a closed state.
+     */
+    public void pathImproved() {
+        pathImprovements.increment();
+    }
+
+    public void setOpenSize(long openSize) {
+        this.openSize = openSize;
+    }
+
+    public void setClosedSize(long closedSize) {
+        this.closedSize = closedSize;
+    }
+
+    public void setFBound(int fBound) {
+        this.fBound = fBound;
+    }
+
+    @Override
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1000000;
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodesExpanded.sum();
+    }
+
+    @Override
+    public long getNodesGenerated() {
+        return nodesGenerated.sum();
+    }
+
+    @Override
+    public double getNodesExpandedPerSecond() {
+        return getNodesExpanded() / Math.max(getElapsedMillis() / 1000.0, 0.001);
+    }
+
+    @Override
+    public double getNodesGeneratedPerSecond() {
+        return getNodesGenerated() / Math.max(getElapsedMillis() / 1000.0, 0.001);
+    }
+
+    @Override
+    public long getOpenSize() {
+        return openSize;
+    }
+
+    @Override
+    public long getClosedSize() {
+        return closedSize;
+    }
+
+    @Override
+    public int getFBound() {
+        return fBound;
+    }
+
+    @Override
+    public long getHeapUsedBytes() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Override
+    public long getHeapMaxBytes() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        return heap.getMax() >= 0 ? heap.getMax() : heap.getCommitted();
+    }
+
+    @Override
+    public double getDuplicateHitRate() {
+        long generated = getNodesGenerated();
+        return generated == 0 ? 0.0 : (double) duplicateHits.sum() / generated;
+    }
+
+    @Override
+    public double getPathImprovementRate() {
+        long generated = getNodesGenerated();
+        return generated == 0 ? 0.0 : (double) pathImprovements.sum() / generated;
+    }
+
+    @Override
+    public long[] getHeuristicHistogram() {
+        long[] histogram = new long[MAX_HISTOGRAM_H + 1];
+
+        for (int h = 0; h <= MAX_HISTOGRAM_H; h++)
+            histogram[h] = heuristicCounts[h].sum();
+
+        return histogram;
+    }
+
+    /**
+     * Publishes the metrics over JMX, as gearball:type=SearchMetrics,name=&lt;name&gt;, replacing
+     * any metrics already published under that name. A search that cannot be published still
+     * runs; the problem is only reported.
+     * @param name The name of the search, such as "AStar".
+     */
+    public void register(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("gearball:type=SearchMetrics,name=" + ObjectName.quote(name));
+
+            if (server.isRegistered(objectName))
+                server.unregisterMBean(objectName);
+
+            server.registerMBean(this, objectName);
+            this.objectName = objectName;
+        } catch (JMException e) {
+            System.err.println("Could not publish search metrics over JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops publishing the metrics over JMX, if they were published.
+     */
+    public void unregister() {
+        if (objectName == null) return;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            System.err.println("Could not remove search metrics from JMX: " + e.getMessage());
+        }
+
+        objectName = null;
+    }
+}
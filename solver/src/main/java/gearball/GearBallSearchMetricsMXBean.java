@@ -0,0 +1,52 @@
+/**
+ * File Name        GearBallSearchMetricsMXBean.java
+ * Purpose          The view of a search's metrics published over JMX, for jconsole and other JMX clients.
+ */
+
+package gearball;
+
+public interface GearBallSearchMetricsMXBean {
+    long getElapsedMillis();
+
+    long getNodesExpanded();
+
+    long getNodesGenerated();
+
+    /**
+     * @return The nodes expanded per second since the search started.
+     */
+    double getNodesExpandedPerSecond();
+
+    /**
+     * @return The nodes generated per second since the search started.
+     */
+    double getNodesGeneratedPerSecond();
+
+    long getOpenSize();
+
+    long getClosedSize();
+
+    /**
+     * @return The f bound of the current IDA* iteration, or the f value of the node A* last expanded.
+     */
+    int getFBound();
+
+    long getHeapUsedBytes();
+
+    long getHeapMaxBytes();
+
+    /**
+     * @return The fraction of generated nodes dropped because their state had already been reached.
+     */
+    double getDuplicateHitRate();
+
+    /**
+     * @return The fraction of generated nodes that reached an already reached state by a shorter path.
+     */
+    double getPathImprovementRate();
+
+    /**
+     * @return The number of generated nodes with each h value; the last entry counts every larger value.
+     */
+    long[] getHeuristicHistogram();
+}
@@ -0,0 +1,128 @@
+/**
+ * File Name        GearBallSearchResult.java
+ * Purpose          What a search with a budget found: the solution, or why it stopped and the
+ *                  closest it came.
+ */
+
+package gearball;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class GearBallSearchResult {
+    /**
+     * Why a search stopped.
+     */
+    public enum Status {
+        // a solution was found
+        SOLVED,
+        // every reachable state was searched without finding a solution
+        EXHAUSTED,
+        // the search expanded as many nodes as its budget allows
+        NODE_LIMIT,
+        // the heap filled past the fraction the budget allows
+        HEAP_LIMIT,
+        // the search ran as long as its budget allows
+        TIME_LIMIT,
+        // the budget was cancelled or the search's thread was interrupted
+        CANCELLED
+    }
+
+    private final Status status;
+    // the moves from the root to the node with the lowest h the search reached; a solution
+    // when the status is SOLVED
+    private final List<Integer> bestMoves;
+    // h(node) of that node
+    private final int bestHValue;
+    // the f bound the search had reached
+    private final int fBound;
+    private final long nodesExpanded;
+    private final long openSize;
+    private final long closedSize;
+    private final long elapsedMillis;
+
+    /**
+     * Constructor for GearBallSearchResult
+     * @param status Why the search stopped.
+     * @param bestMoves The moves from the root to the node with the lowest h reached.
+     * @param bestHValue h(node) of that node.
+     * @param fBound The f bound the search had reached.
+     * @param nodesExpanded The number of nodes expanded.
+     * @param openSize The number of nodes left on the open list.
+     * @param closedSize The number of states in the closed list.
+     * @param elapsedMillis The time the search took, in milliseconds.
+     */
+    public GearBallSearchResult(Status status, List<Integer> bestMoves, int bestHValue, int fBound,
+                                long nodesExpanded, long openSize, long closedSize, long elapsedMillis) {
+        this.status = status;
+        this.bestMoves = Collections.unmodifiableList(new ArrayList<>(bestMoves));
+        this.bestHValue = bestHValue;
+        this.fBound = fBound;
+        this.nodesExpanded = nodesExpanded;
+        this.openSize = openSize;
+        this.closedSize = closedSize;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSolved() {
+        return status == Status.SOLVED;
+    }
+
+    /**
+     * @return The solution's moves, or an empty list if the search did not find one.
+     */
+    public List<Integer> getSolutionMoves() {
+        return isSolved() ? bestMoves : Collections.<Integer>emptyList();
+    }
+
+    /**
+     * Gets the moves to the node the search reached with the lowest h, which is the best
+     * partial progress when the search stopped without a solution.
+     * @return The simplified move numbers in the order they are made from the root.
+     */
+    public List<Integer> getBestMoves() {
+        return bestMoves;
+    }
+
+    public int getBestHValue() {
+        return bestHValue;
+    }
+
+    /**
+     * @return The f bound of the last IDA* iteration, or the f value A* had reached; no
+     *         solution is shorter than this unless the heuristic overestimates.
+     */
+    public int getFBound() {
+        return fBound;
+    }
+
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    public long getOpenSize() {
+        return openSize;
+    }
+
+    public long getClosedSize() {
+        return closedSize;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return A one line summary, such as "TIME_LIMIT after 120000 nodes in 2.0 seconds, f bound 11, best h 4 at depth 7".
+     */
+    @Override
+    public String toString() {
+        return status + " after " + nodesExpanded + " nodes in " + (elapsedMillis / 1000.0) + " seconds, f bound "
+               + fBound + ", best h " + bestHValue + " at depth " + bestMoves.size();
+    }
+}
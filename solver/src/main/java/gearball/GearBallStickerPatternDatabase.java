@@ -0,0 +1,451 @@
+/**
+ * File Name        GearBallStickerPatternDatabase.java
+ * Purpose          Exact distances to solved for subsets of the stickers, generated ahead of
+ *                  time into a file that the solvers memory-map.
+ */
+
+package gearball;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class GearBallStickerPatternDatabase {
+    // file the tables are generated into, in the directory given by the gearball.pdb.dir
+    // system property or the working directory
+    public static final String FILE_NAME = "gearball-stickers.pdb";
+
+    // the sticker subsets, each tracked by its own table. The centers need no table of their
+    // own: every arrangement of them is one of the solved ways to hold the gear ball. The
+    // stickers move as solid blocks, so all of them together can only be in 147,456
+    // configurations, few enough to store as well; that table is the strongest of the three.
+    // It holds only one configuration of those that are symmetric to each other, as given by
+    // GearBallSymmetry, which needs the centers to tell how the colors are named; the other
+    // two tables leave out the centers and store every configuration.
+    public static final int CORNERS = 0;
+    public static final int EDGES = 1;
+    public static final int ALL = 2;
+    public static final String[] SUBSET_NAMES = {"corners", "edges", "all stickers"};
+
+    // the blocks of every face that make up each subset, in row-major block order; the
+    // edge blocks are the ones that hold the gears
+    private static final int[][] SUBSET_BLOCKS = {
+            {0, 2, 6, 8},
+            {1, 3, 5, 7},
+            {0, 1, 2, 3, 4, 5, 6, 7, 8}
+    };
+
+    // identifies the file format
+    private static final int MAGIC = 0x47425350;
+    private static final int VERSION = 2;
+
+    // a sticker configuration is packed three bits per block, this many blocks per word
+    private static final int BLOCKS_PER_WORD = 21;
+
+    // 0 marks an empty slot, so a fingerprint of 0 is stored as this value instead
+    private static final long ZERO_FINGERPRINT = 0x9E3779B97F4A7C15L;
+
+    // the block positions (face * 9 + block) of each subset
+    private static final int[][] SUBSET_POSITIONS = new int[SUBSET_BLOCKS.length][];
+
+    static {
+        for (int subset = 0; subset < SUBSET_BLOCKS.length; subset++) {
+            int[] positions = new int[6 * SUBSET_BLOCKS[subset].length];
+            int i = 0;
+
+            for (int face = 0; face < 6; face++) {
+                for (int block : SUBSET_BLOCKS[subset])
+                    positions[i++] = face * GearBallState.BLOCKS_PER_FACE + block;
+            }
+
+            SUBSET_POSITIONS[subset] = positions;
+        }
+    }
+
+    // the generated file, mapped into memory; each table is an open-addressed array of
+    // fingerprints followed by the distance of each one
+    private final MappedByteBuffer buffer;
+    // byte offset of each table's fingerprints and distances in the buffer, and its number of slots
+    private final int[] keyOffsets;
+    private final int[] distanceOffsets;
+    private final int[] capacities;
+    // number of sticker configurations in each table
+    private final int[] numStates;
+
+    // the database shared by the solvers, mapped on first use
+    private static GearBallStickerPatternDatabase instance;
+
+    private GearBallStickerPatternDatabase(MappedByteBuffer buffer, int[] capacities, int[] numStates) {
+        this.buffer = buffer;
+        this.capacities = capacities;
+        this.numStates = numStates;
+        this.keyOffsets = new int[capacities.length];
+        this.distanceOffsets = new int[capacities.length];
+
+        int offset = 3 * Integer.BYTES + capacities.length * 2 * Integer.BYTES;
+        for (int subset = 0; subset < capacities.length; subset++) {
+            keyOffsets[subset] = offset;
+            distanceOffsets[subset] = offset + capacities[subset] * Long.BYTES;
+            offset = distanceOffsets[subset] + capacities[subset];
+        }
+    }
+
+    /**
+     * Gets the shared database, mapping the generated file into memory, and generating it
+     * first if it is missing or out of date.
+     * @return The sticker pattern database.
+     */
+    public static synchronized GearBallStickerPatternDatabase getInstance() {
+        if (instance == null) {
+            instance = mapOrGenerate(new File(System.getProperty("gearball.pdb.dir", "."), FILE_NAME));
+        }
+
+        return instance;
+    }
+
+    /**
+     * Maps a generated file into memory, generating it first if it is missing, damaged or
+     * from another version.
+     * @param file The file to map, and to generate if need be.
+     * @return The sticker pattern database.
+     */
+    static GearBallStickerPatternDatabase mapOrGenerate(File file) {
+        GearBallStickerPatternDatabase database = map(file);
+
+        if (database == null) {
+            System.err.println("Generating sticker pattern database. This only happens once...");
+            generate(file);
+            database = map(file);
+        }
+
+        if (database == null) {
+            System.err.println("GearBallStickerPatternDatabase: error - Could not map " + file);
+            System.exit(1);
+        }
+
+        return database;
+    }
+
+    /**
+     * Generates the tables into a file, ahead of any search.
+     * @param args The directory to write the file to; the working directory if none is given.
+     */
+    public static void main(String[] args) {
+        File file = new File(args.length > 0 ? args[0] : ".", FILE_NAME);
+        long startTime = System.currentTimeMillis();
+
+        generate(file);
+
+        GearBallStickerPatternDatabase database = map(file);
+        if (database == null) {
+            System.err.println("GearBallStickerPatternDatabase: error - Could not map " + file);
+            System.exit(1);
+        }
+
+        for (int subset = 0; subset < SUBSET_NAMES.length; subset++) {
+            System.out.println(SUBSET_NAMES[subset] + ": " + database.getNumStates(subset)
+                               + " configurations, at most " + database.getMaxDistance(subset) + " moves");
+        }
+        System.out.println("Wrote " + file + " in " + (System.currentTimeMillis() - startTime) / 1000.0 + " seconds");
+    }
+
+    /**
+     * Gets a lower bound on the moves needed to solve the stickers. Every move carries
+     * stickers of every subset, so their distances cannot be added; the largest is used.
+     * @param gearBall The configuration of the gear ball.
+     * @return The largest distance given by any of the tables.
+     */
+    public int getHValue(GearBall gearBall) {
+        byte[] blockColors = getBlockColors(gearBall);
+        int value = 0;
+
+        for (int subset = 0; subset < capacities.length; subset++)
+            value = Math.max(value, getDistance(subset, blockColors));
+
+        return value;
+    }
+
+    /**
+     * Gets the moves needed to solve one subset of the stickers.
+     * @param gearBall The configuration of the gear ball.
+     * @param subset CORNERS, EDGES or ALL.
+     * @return The exact number of moves needed to solve that subset.
+     */
+    public int getHValue(GearBall gearBall, int subset) {
+        return getDistance(subset, getBlockColors(gearBall));
+    }
+
+    /**
+     * @param subset CORNERS, EDGES or ALL.
+     * @return The number of sticker configurations the subset can be in.
+     */
+    public int getNumStates(int subset) {
+        return numStates[subset];
+    }
+
+    /**
+     * @param subset CORNERS, EDGES or ALL.
+     * @return The most moves any configuration of the subset needs.
+     */
+    public int getMaxDistance(int subset) {
+        int max = 0;
+
+        for (int slot = 0; slot < capacities[subset]; slot++)
+            max = Math.max(max, buffer.get(distanceOffsets[subset] + slot));
+
+        return max;
+    }
+
+    /**
+     * Looks up the distance of a subset's stickers in its table.
+     * @param subset CORNERS, EDGES or ALL.
+     * @param blockColors The color index of every block, as given by getBlockColors.
+     * @return The distance to solved, or 0 for a configuration missing from the table.
+     */
+    private int getDistance(int subset, byte[] blockColors) {
+        if (subset == ALL)
+            blockColors = GearBallSymmetry.getCanonicalBlocks(blockColors);
+
+        long fingerprint = fingerprint(blockColors, SUBSET_POSITIONS[subset]);
+        int mask = capacities[subset] - 1;
+        int slot = spread(fingerprint) & mask;
+
+        // probe linearly until the fingerprint or an empty slot is found
+        while (true) {
+            long key = buffer.getLong(keyOffsets[subset] + slot * Long.BYTES);
+            if (key == fingerprint) return buffer.get(distanceOffsets[subset] + slot);
+            if (key == 0) return 0;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Reads the color of every block of a gear ball.
+     * @param gearBall The configuration of the gear ball.
+     * @return The GearBallState.COLORS index of each block position (face * 9 + block).
+     */
+    private static byte[] getBlockColors(GearBall gearBall) {
+        GearBallFace[] faces = gearBall.getFaces();
+        byte[] blockColors = new byte[faces.length * GearBallState.BLOCKS_PER_FACE];
+
+        for (int face = 0; face < faces.length; face++) {
+            for (int block = 0; block < GearBallState.BLOCKS_PER_FACE; block++) {
+                char color = GearBallState.blockColor(faces[face], block);
+                blockColors[face * GearBallState.BLOCKS_PER_FACE + block] = (byte) GearBallState.colorIndex(color);
+            }
+        }
+
+        return blockColors;
+    }
+
+    /**
+     * Generates every table by a breadth-first search backwards from the solved states and
+     * writes them to a file.
+     * @param file The file to write.
+     */
+    public static void generate(File file) {
+        int[][] orientations = GearBallMoveTable.getSolvedOrientations();
+        long[][] keys = new long[SUBSET_POSITIONS.length][];
+        byte[][] distances = new byte[SUBSET_POSITIONS.length][];
+        int[] sizes = new int[SUBSET_POSITIONS.length];
+
+        for (int subset = 0; subset < SUBSET_POSITIONS.length; subset++) {
+            HashMap<Long, Byte> table = buildTable(SUBSET_POSITIONS[subset], subset == ALL, orientations);
+
+            // keep the table at most half full so lookups probe few slots
+            int capacity = Integer.highestOneBit(table.size() * 4 - 1);
+            keys[subset] = new long[capacity];
+            distances[subset] = new byte[capacity];
+            sizes[subset] = table.size();
+
+            for (HashMap.Entry<Long, Byte> entry : table.entrySet()) {
+                long fingerprint = entry.getKey();
+                int slot = spread(fingerprint) & (capacity - 1);
+
+                while (keys[subset][slot] != 0)
+                    slot = (slot + 1) & (capacity - 1);
+
+                keys[subset][slot] = fingerprint;
+                distances[subset][slot] = entry.getValue();
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(SUBSET_POSITIONS.length);
+
+            for (int subset = 0; subset < SUBSET_POSITIONS.length; subset++) {
+                out.writeInt(keys[subset].length);
+                out.writeInt(sizes[subset]);
+            }
+
+            for (int subset = 0; subset < SUBSET_POSITIONS.length; subset++) {
+                for (long key : keys[subset])
+                    out.writeLong(key);
+                out.write(distances[subset]);
+            }
+        } catch (IOException e) {
+            System.err.println("GearBallStickerPatternDatabase: error - Could not write " + file + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Finds the distance to solved of every configuration one subset of the stickers can be in.
+     * @param positions The block positions in the subset.
+     * @param symmetric true to store only the representative of each set of symmetric
+     *                  configurations; positions must then be every block position, in order
+     * @param orientations The colors of the faces of every solved state.
+     * @return The distance of each configuration, by fingerprint.
+     */
+    private static HashMap<Long, Byte> buildTable(int[] positions, boolean symmetric, int[][] orientations) {
+        // index of each block position within the subset, for following the moves
+        int[] indexOf = new int[6 * GearBallState.BLOCKS_PER_FACE];
+        Arrays.fill(indexOf, -1);
+        for (int i = 0; i < positions.length; i++)
+            indexOf[positions[i]] = i;
+
+        // where each move carries each tracked block from; the subsets are closed under every move
+        int[][] sources = new int[GearBallMoveTable.NUM_MOVES][positions.length];
+        for (int move = 0; move < GearBallMoveTable.NUM_MOVES; move++) {
+            for (int i = 0; i < positions.length; i++)
+                sources[move][i] = indexOf[GearBallMoveTable.getBlockSource(move, positions[i])];
+        }
+
+        int[] order = new int[positions.length];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+
+        HashMap<Long, Byte> table = new HashMap<>();
+        // the configuration behind each fingerprint, to make sure no two share one
+        HashMap<Long, byte[]> configurations = new HashMap<>();
+        ArrayDeque<byte[]> queue = new ArrayDeque<>();
+
+        for (int[] faceColors : orientations) {
+            byte[] solved = new byte[positions.length];
+            for (int i = 0; i < positions.length; i++)
+                solved[i] = (byte) faceColors[positions[i] / GearBallState.BLOCKS_PER_FACE];
+            if (symmetric)
+                solved = GearBallSymmetry.getCanonicalBlocks(solved);
+
+            long fingerprint = fingerprint(solved, order);
+            if (!table.containsKey(fingerprint)) {
+                table.put(fingerprint, (byte) 0);
+                configurations.put(fingerprint, solved);
+                queue.add(solved);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            byte[] configuration = queue.poll();
+            byte distance = (byte) (table.get(fingerprint(configuration, order)) + 1);
+
+            for (int move = 0; move < GearBallMoveTable.NUM_MOVES; move++) {
+                byte[] next = new byte[positions.length];
+                for (int i = 0; i < positions.length; i++)
+                    next[i] = configuration[sources[move][i]];
+                if (symmetric)
+                    next = GearBallSymmetry.getCanonicalBlocks(next);
+
+                long fingerprint = fingerprint(next, order);
+                byte[] existing = configurations.get(fingerprint);
+
+                if (existing == null) {
+                    table.put(fingerprint, distance);
+                    configurations.put(fingerprint, next);
+                    queue.add(next);
+                } else if (!Arrays.equals(existing, next)) {
+                    System.err.println("GearBallStickerPatternDatabase: error - Two configurations share a fingerprint");
+                    System.exit(1);
+                }
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * Maps a generated file into memory.
+     * @param file The file to map.
+     * @return The database, or null if the file is missing or not a valid database.
+     */
+    private static GearBallStickerPatternDatabase map(File file) {
+        if (!file.isFile()) return null;
+
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            MappedByteBuffer buffer = in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length());
+
+            if (in.length() < 3 * Integer.BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getInt(8) != SUBSET_POSITIONS.length)
+                return null;
+
+            int[] capacities = new int[SUBSET_POSITIONS.length];
+            int[] numStates = new int[SUBSET_POSITIONS.length];
+            long length = 3 * Integer.BYTES + SUBSET_POSITIONS.length * 2 * Integer.BYTES;
+
+            for (int subset = 0; subset < SUBSET_POSITIONS.length; subset++) {
+                capacities[subset] = buffer.getInt(12 + subset * 8);
+                numStates[subset] = buffer.getInt(16 + subset * 8);
+                length += (long) capacities[subset] * (Long.BYTES + 1);
+            }
+
+            if (length != in.length()) return null;
+
+            // the mapping stays valid after the file is closed
+            return new GearBallStickerPatternDatabase(buffer, capacities, numStates);
+        } catch (IOException e) {
+            System.err.println("Could not map sticker pattern database " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Computes a 64-bit fingerprint of the colors of some blocks.
+     * @param colors The color index of each block.
+     * @param order The indices into colors of the blocks to include, in order.
+     * @return The fingerprint, never 0.
+     */
+    private static long fingerprint(byte[] colors, int[] order) {
+        long hash = 0;
+        long word = 0;
+
+        for (int i = 0; i < order.length; i++) {
+            word = (word << 3) | colors[order[i]];
+
+            if ((i + 1) % BLOCKS_PER_WORD == 0 || i == order.length - 1) {
+                hash = mix(hash ^ word);
+                word = 0;
+            }
+        }
+
+        return hash == 0 ? ZERO_FINGERPRINT : hash;
+    }
+
+    /**
+     * Picks the starting slot hash for a fingerprint, which is already well mixed.
+     */
+    private static int spread(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+    /**
+     * Finalization step of a 64-bit hash (MurmurHash3 fmix64).
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
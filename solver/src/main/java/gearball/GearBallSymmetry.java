@@ -0,0 +1,278 @@
+/**
+ * File Name        GearBallSymmetry.java
+ * Purpose          Maps gear ball states to a single representative of the states that are
+ *                  the same distance from solved by symmetry.
+ */
+
+package gearball;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class GearBallSymmetry {
+    // number of block positions and the block of every face at its center
+    private static final int NUM_BLOCKS = 6 * GearBallState.BLOCKS_PER_FACE;
+    private static final int CENTER_BLOCK = 4;
+
+    // the longest sequence of moves searched for a way to turn the whole gear ball over
+    private static final int MAX_ROTATION_MOVES = 6;
+
+    // each way of turning the whole gear ball over that carries the moves onto the moves,
+    // as the block position each block comes from, the gear position each gear comes from
+    // and how much its state changes; the first is leaving the ball as it is
+    private static final int[][] BLOCK_SOURCE;
+    private static final int[][] GEAR_SOURCE;
+    private static final int[][] GEAR_DELTA;
+    // for each rotation, the move that making a move on the turned gear ball amounts to
+    private static final int[][] MOVE_MAP;
+
+    static {
+        ArrayList<int[][]> rotations = new ArrayList<>();
+        findRotations(identity(), MAX_ROTATION_MOVES, GearBallMovePruning.getInitialState(), rotations);
+
+        BLOCK_SOURCE = new int[rotations.size()][];
+        GEAR_SOURCE = new int[rotations.size()][];
+        GEAR_DELTA = new int[rotations.size()][];
+        MOVE_MAP = new int[rotations.size()][];
+
+        for (int i = 0; i < rotations.size(); i++) {
+            BLOCK_SOURCE[i] = rotations.get(i)[0];
+            GEAR_SOURCE[i] = rotations.get(i)[1];
+            GEAR_DELTA[i] = rotations.get(i)[2];
+            MOVE_MAP[i] = rotations.get(i)[3];
+        }
+    }
+
+    /**
+     * Gets the number of ways to turn the whole gear ball over that carry the moves onto the
+     * moves. Together with changing which color is which, as the solved states do, they give
+     * every state as many as 24 times this many states the same distance from solved.
+     * @return The number of rotations, counting leaving the ball as it is.
+     */
+    public static int getNumRotations() {
+        return BLOCK_SOURCE.length;
+    }
+
+    /**
+     * Gets the representative of the states a state is symmetric to: the smallest of the
+     * states it becomes when the gear ball is turned over by each rotation and its colors
+     * renamed so that each center shows its face's solved color. Every solved state has
+     * the same representative, and the representative is solved in as few moves as the state.
+     * @param state The state.
+     * @return The representative state.
+     */
+    public static GearBallState getCanonical(GearBallState state) {
+        int rotation = getCanonicalRotation(state);
+        return state.transform(BLOCK_SOURCE[rotation], GEAR_SOURCE[rotation], GEAR_DELTA[rotation]);
+    }
+
+    /**
+     * Gets the rotation that turns a state into its representative.
+     * @param state The state.
+     * @return The rotation's index (0 to getNumRotations() - 1).
+     */
+    public static int getCanonicalRotation(GearBallState state) {
+        GearBallState best = null;
+        int bestRotation = 0;
+
+        for (int rotation = 0; rotation < BLOCK_SOURCE.length; rotation++) {
+            GearBallState turned = state.transform(BLOCK_SOURCE[rotation], GEAR_SOURCE[rotation], GEAR_DELTA[rotation]);
+
+            if (best == null || turned.compareTo(best) < 0) {
+                best = turned;
+                bestRotation = rotation;
+            }
+        }
+
+        return bestRotation;
+    }
+
+    /**
+     * Gets the representative of the colors of every block, which are symmetric in the same
+     * way as whole states.
+     * @param blockColors The GearBallState.COLORS index of each block position (face * 9 + block).
+     * @return The smallest of the block colors given by each rotation, with the colors renamed
+     *         so that each center shows its face's solved color.
+     */
+    public static byte[] getCanonicalBlocks(byte[] blockColors) {
+        byte[] best = null;
+        byte[] turned = new byte[NUM_BLOCKS];
+        int[] recolor = new int[GearBallState.COLORS.length];
+
+        for (int rotation = 0; rotation < BLOCK_SOURCE.length; rotation++) {
+            int[] source = BLOCK_SOURCE[rotation];
+
+            for (int face = 0; face < 6; face++)
+                recolor[blockColors[source[face * GearBallState.BLOCKS_PER_FACE + CENTER_BLOCK]]] = face;
+            for (int position = 0; position < NUM_BLOCKS; position++)
+                turned[position] = (byte) recolor[blockColors[source[position]]];
+
+            if (best == null || compare(turned, best) < 0)
+                best = turned.clone();
+        }
+
+        return best;
+    }
+
+    /**
+     * Carries a move made on a state over to the state it is symmetric to. If a state becomes
+     * another under a rotation, then making a move on the first and making the mapped move on
+     * the second leave two states that still match under that rotation.
+     * @param rotation The rotation's index.
+     * @param move The simplified move number (0 - 11) made on the state.
+     * @return The simplified move number to make on the turned state.
+     */
+    public static int mapMove(int rotation, int move) {
+        return MOVE_MAP[rotation][move];
+    }
+
+    /**
+     * Carries a move made on a turned state back to the state it was turned from.
+     * @param rotation The rotation's index.
+     * @param move The simplified move number (0 - 11) made on the turned state.
+     * @return The simplified move number to make on the original state.
+     */
+    public static int unmapMove(int rotation, int move) {
+        for (int original = 0; original < GearBallMoveTable.NUM_MOVES; original++) {
+            if (MOVE_MAP[rotation][original] == move) return original;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Searches the sequences of moves that the move pruning tables keep for the ones that
+     * turn the solved gear ball into a solved state and carry each move onto a move, adding
+     * each new one to the list.
+     * @param effect The effect of the moves made so far.
+     * @param movesLeft The number of moves that may still be made.
+     * @param history The last moves made, as kept by GearBallMovePruning.
+     * @param rotations The rotations found, each as {block sources, gear sources, gear deltas, move map}.
+     */
+    private static void findRotations(int[][] effect, int movesLeft, int history, ArrayList<int[][]> rotations) {
+        int[] moveMap = isRotation(effect) ? getMoveMap(effect) : null;
+
+        if (moveMap != null) {
+            boolean seen = false;
+            for (int[][] rotation : rotations)
+                seen |= Arrays.equals(rotation[0], effect[0]) && Arrays.equals(rotation[1], effect[1])
+                        && Arrays.equals(rotation[2], effect[2]);
+
+            if (!seen)
+                rotations.add(new int[][]{effect[0], effect[1], effect[2], moveMap});
+        }
+
+        if (movesLeft == 0) return;
+
+        for (int move = 0; move < GearBallMoveTable.NUM_MOVES; move++) {
+            if (!GearBallMovePruning.getTreeSearchTable().isAllowed(history, move)) continue;
+
+            findRotations(combine(effect, moveEffect(move)), movesLeft - 1,
+                          GearBallMovePruning.getNextState(history, move), rotations);
+        }
+    }
+
+    /**
+     * Checks if an effect leaves the solved gear ball solved: every face still a single
+     * color and every gear still in state 0.
+     */
+    private static boolean isRotation(int[][] effect) {
+        for (int position = 0; position < NUM_BLOCKS; position++) {
+            if (effect[0][position] / GearBallState.BLOCKS_PER_FACE
+                    != effect[0][position - position % GearBallState.BLOCKS_PER_FACE] / GearBallState.BLOCKS_PER_FACE)
+                return false;
+        }
+
+        for (int delta : effect[2]) {
+            if (delta != 0) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Finds the move each move becomes when made on a gear ball turned over by an effect:
+     * the move m' for which making the effect and then m' is the same as making m and then
+     * the effect.
+     * @return The move each move is carried onto, or null if some move is not carried onto a move.
+     */
+    private static int[] getMoveMap(int[][] effect) {
+        int[] moveMap = new int[GearBallMoveTable.NUM_MOVES];
+
+        for (int move = 0; move < GearBallMoveTable.NUM_MOVES; move++) {
+            int[][] moveFirst = combine(moveEffect(move), effect);
+            moveMap[move] = -1;
+
+            for (int mapped = 0; mapped < GearBallMoveTable.NUM_MOVES && moveMap[move] < 0; mapped++) {
+                int[][] mappedAfter = combine(effect, moveEffect(mapped));
+
+                if (Arrays.deepEquals(moveFirst, mappedAfter))
+                    moveMap[move] = mapped;
+            }
+
+            if (moveMap[move] < 0) return null;
+        }
+
+        return moveMap;
+    }
+
+    /**
+     * @return The effect of making no moves.
+     */
+    private static int[][] identity() {
+        int[][] effect = {new int[NUM_BLOCKS], new int[GearBallState.NUM_GEARS], new int[GearBallState.NUM_GEARS]};
+
+        for (int position = 0; position < NUM_BLOCKS; position++)
+            effect[0][position] = position;
+        for (int gear = 0; gear < GearBallState.NUM_GEARS; gear++)
+            effect[1][gear] = gear;
+
+        return effect;
+    }
+
+    /**
+     * @return The effect of one move.
+     */
+    private static int[][] moveEffect(int move) {
+        int[][] effect = {new int[NUM_BLOCKS], new int[GearBallState.NUM_GEARS], new int[GearBallState.NUM_GEARS]};
+
+        for (int position = 0; position < NUM_BLOCKS; position++)
+            effect[0][position] = GearBallMoveTable.getBlockSource(move, position);
+        for (int gear = 0; gear < GearBallState.NUM_GEARS; gear++) {
+            effect[1][gear] = GearBallMoveTable.getGearSource(move, gear);
+            effect[2][gear] = GearBallMoveTable.getGearDelta(move, gear);
+        }
+
+        return effect;
+    }
+
+    /**
+     * Combines two effects.
+     * @param first The effect made first.
+     * @param second The effect made after it.
+     * @return The effect of making both.
+     */
+    private static int[][] combine(int[][] first, int[][] second) {
+        int[][] effect = {new int[NUM_BLOCKS], new int[GearBallState.NUM_GEARS], new int[GearBallState.NUM_GEARS]};
+
+        for (int position = 0; position < NUM_BLOCKS; position++)
+            effect[0][position] = first[0][second[0][position]];
+        for (int gear = 0; gear < GearBallState.NUM_GEARS; gear++) {
+            effect[1][gear] = first[1][second[1][gear]];
+            effect[2][gear] = (first[2][second[1][gear]] + second[2][gear]) % GearBallState.NUM_GEAR_STATES;
+        }
+
+        return effect;
+    }
+
+    /**
+     * Compares two arrays of block colors, first differing block first.
+     */
+    private static int compare(byte[] a, byte[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) return a[i] - b[i];
+        }
+
+        return 0;
+    }
+}
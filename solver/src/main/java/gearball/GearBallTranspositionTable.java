@@ -0,0 +1,232 @@
+/**
+ * File Name        GearBallTranspositionTable.java
+ * Purpose          A fixed-size table of the states a depth-first search has already searched
+ *                  below, and how far each is known to be from a solution, so that states
+ *                  reached again by another sequence of moves are not searched again.
+ */
+
+package gearball;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class GearBallTranspositionTable {
+    // memory budget used when none is given
+    public static final int DEFAULT_MEGABYTES = 64;
+    // returned by probe when the state is not in the table
+    public static final long MISS = 0;
+
+    // entries are grouped in buckets of this many, 64 bytes, one cache line; a state can only
+    // be stored in the bucket its key picks
+    private static final int BUCKET_ENTRIES = 4;
+    // set in every stored entry, so that no entry is 0
+    private static final long OCCUPIED = 1L << 63;
+    // the largest g and bound an entry can hold; a larger bound is stored as this and read back
+    // as Integer.MAX_VALUE, meaning no solution is below the state
+    private static final int MAX_VALUE = 0xFFFF;
+
+    // two longs per entry: the key XORed with the entry, then the entry. A reader only accepts
+    // an entry whose two halves give back its key, so an entry half written by another thread
+    // reads as a miss and no locks are needed
+    private final long[] table;
+    // number of buckets - 1
+    private final int bucketMask;
+    // probes that found their state, probes that did not, and stores that overwrote another state
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder replacements = new LongAdder();
+
+    /**
+     * Constructor for GearBallTranspositionTable using the default memory budget.
+     */
+    public GearBallTranspositionTable() {
+        this(DEFAULT_MEGABYTES);
+    }
+
+    /**
+     * Constructor for GearBallTranspositionTable. The whole table is allocated up front and
+     * never grows.
+     * @param megabytes The memory the table uses.
+     */
+    public GearBallTranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            System.err.println("GearBallTranspositionTable: error - Invalid memory budget: " + megabytes);
+            System.exit(1);
+        }
+
+        // largest power of two number of buckets that fits in the budget
+        long maxBuckets = ((long) megabytes << 20) / (BUCKET_ENTRIES * 2 * Long.BYTES);
+        int numBuckets = (int) Long.highestOneBit(Math.min(maxBuckets, 1L << 26));
+
+        this.table = new long[numBuckets * BUCKET_ENTRIES * 2];
+        this.bucketMask = numBuckets - 1;
+    }
+
+    /**
+     * Gets the key a configuration is stored under. The moves a tree search may make next
+     * depend on the last moves made, so the same configuration reached with a different
+     * history has a different subtree below it and is kept apart.
+     * @param stateHash The configuration's GearBallState.longHash.
+     * @param history The last moves that led to it, as kept by GearBallMovePruning.
+     * @return The key.
+     */
+    public static long getKey(long stateHash, int history) {
+        return stateHash ^ (history * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Looks a state up.
+     * @param key The state's key, from getKey.
+     * @return The state's entry, to be read with getG and getBound, or MISS.
+     */
+    public long probe(long key) {
+        int slot = bucketOf(key);
+
+        for (int i = 0; i < BUCKET_ENTRIES; i++, slot += 2) {
+            long entry = table[slot + 1];
+
+            if (entry != 0 && (table[slot] ^ entry) == key) {
+                hits.increment();
+                return entry;
+            }
+        }
+
+        misses.increment();
+        return MISS;
+    }
+
+    /**
+     * Records that a state has been searched below and found to have no solution within
+     * the bound. The entry whose bound - g is largest is kept, since bound - g is the fewest
+     * moves the state is from a solution and the depth that was searched below it. A new
+     * state takes an empty entry in its bucket if there is one, otherwise it replaces the
+     * shallowest entry if that is no deeper than itself; if every entry is deeper, it is not stored.
+     * @param key The state's key, from getKey.
+     * @param g The number of moves made from the root to the state.
+     * @param bound The lowest f value cut off below the state, which no solution through
+     *              the state can be shorter than.
+     */
+    public void store(long key, int g, int bound) {
+        if (g > MAX_VALUE) return;
+
+        int depth = getDepth(g, bound);
+        long entry = OCCUPIED | ((long) g << 16) | Math.min(bound, MAX_VALUE);
+        int start = bucketOf(key);
+        int shallowest = -1;
+        int shallowestDepth = Integer.MAX_VALUE;
+
+        for (int i = 0, slot = start; i < BUCKET_ENTRIES; i++, slot += 2) {
+            long stored = table[slot + 1];
+
+            if (stored == 0) {
+                write(slot, key, entry);
+                return;
+            }
+
+            if ((table[slot] ^ stored) == key) {
+                if (depth >= getDepth(getG(stored), getBound(stored)))
+                    write(slot, key, entry);
+
+                return;
+            }
+
+            int storedDepth = getDepth(getG(stored), getBound(stored));
+            if (storedDepth < shallowestDepth) {
+                shallowest = slot;
+                shallowestDepth = storedDepth;
+            }
+        }
+
+        if (depth >= shallowestDepth) {
+            write(shallowest, key, entry);
+            replacements.increment();
+        }
+    }
+
+    /**
+     * @param entry An entry returned by probe.
+     * @return The number of moves from the root the state was searched at.
+     */
+    public static int getG(long entry) {
+        return (int) (entry >>> 16) & MAX_VALUE;
+    }
+
+    /**
+     * @param entry An entry returned by probe.
+     * @return The lowest f value cut off below the state, or Integer.MAX_VALUE if nothing was
+     *         cut off and so no solution is below it.
+     */
+    public static int getBound(long entry) {
+        int bound = (int) entry & MAX_VALUE;
+        return (bound == MAX_VALUE) ? Integer.MAX_VALUE : bound;
+    }
+
+    /**
+     * Gets the fewest moves an entry's state is known to be from a solution, which can be
+     * used in place of h(node) when it is larger.
+     * @param entry An entry returned by probe.
+     * @return bound - g, or Integer.MAX_VALUE if no solution is below the state.
+     */
+    public static int getDistance(long entry) {
+        return getDepth(getG(entry), getBound(entry));
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getReplacements() {
+        return replacements.sum();
+    }
+
+    /**
+     * @return The number of states the table can hold.
+     */
+    public int getCapacity() {
+        return table.length / 2;
+    }
+
+    /**
+     * @return The memory used by the table in bytes.
+     */
+    public long getMemoryUsed() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    /**
+     * Prints the table's size and how often it was hit, missed and had entries replaced.
+     */
+    public void printReport() {
+        long probes = getHits() + getMisses();
+
+        System.out.printf("Transposition table (MB): %.1f, %d entries%n", getMemoryUsed() / 1048576.0, getCapacity());
+        System.out.printf("Transposition table hits: %d of %d probes (%.1f%%), %d replacements%n",
+                          getHits(), probes, probes == 0 ? 0.0 : 100.0 * getHits() / probes, getReplacements());
+    }
+
+    /**
+     * Writes an entry. A reader that sees one half of it with a half of another entry gets a
+     * key that does not match and treats the slot as a miss.
+     */
+    private void write(int slot, long key, long entry) {
+        table[slot] = key ^ entry;
+        table[slot + 1] = entry;
+    }
+
+    /**
+     * @return The index of the first long of the bucket a key is stored in.
+     */
+    private int bucketOf(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * BUCKET_ENTRIES * 2;
+    }
+
+    /**
+     * @return bound - g, or Integer.MAX_VALUE if bound is.
+     */
+    private static int getDepth(int g, int bound) {
+        return (bound == Integer.MAX_VALUE) ? Integer.MAX_VALUE : bound - g;
+    }
+}
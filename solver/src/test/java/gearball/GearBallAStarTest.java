@@ -0,0 +1,30 @@
+/**
+ * File Name        GearBallAStarTest.java
+ * Purpose          Checks that A* finds solutions as short as bidirectional search's with either
+ *                  open list.
+ */
+
+package gearball;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class GearBallAStarTest {
+    @Test
+    public void findsOptimalSolutionsWithTheHeapOpenList() {
+        GearBallSolverTests.assertFindsOptimalSolutions("A* with a heap",
+                                                       gearBall -> solve(gearBall, new GearBallHeapOpenList()));
+    }
+
+    @Test
+    public void findsOptimalSolutionsWithTheBucketOpenList() {
+        GearBallSolverTests.assertFindsOptimalSolutions("A* with buckets",
+                                                       gearBall -> solve(gearBall, new GearBallBucketOpenList()));
+    }
+
+    private static List<Integer> solve(GearBall gearBall, GearBallOpenList frontier) {
+        GearBallAStar aStar = new GearBallAStar(gearBall, GearBallClosedSet.DEFAULT_MAX_MEGABYTES, frontier);
+        return aStar.performSearch() ? aStar.getSolutionMoves() : null;
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * File Name        GearBallAnytimeAStarTest.java
+ * Purpose          Checks that anytime weighted A* streams shorter and shorter solutions and
+ *                  ends with a shortest one.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class GearBallAnytimeAStarTest {
+    @Test
+    public void improvesToOptimalSolutions() {
+        for (int i = 0; i < GearBallSolverTests.NUM_SCRAMBLES; i++) {
+            GearBall gearBall = GearBallSolverTests.scramble(i);
+            GearBallAStar search = new GearBallAStar(gearBall, 64, new GearBallBucketOpenList());
+            List<GearBallSearchResult> solutions = new ArrayList<>();
+
+            GearBallSearchResult result = search.performAnytimeSearch(5.0, new GearBallSearchBudget(), solutions::add);
+            int optimalDepth = GearBallSolverTests.optimalDepth(i);
+
+            assertTrue(result.isSolved());
+            assertEquals("scramble " + i, optimalDepth, result.getSolutionMoves().size());
+            GearBallSolverTests.assertSolves(gearBall, result.getSolutionMoves());
+
+            assertFalse(solutions.isEmpty());
+            int lastDepth = Integer.MAX_VALUE;
+            for (GearBallSearchResult solution : solutions) {
+                int depth = solution.getSolutionMoves().size();
+
+                assertTrue("each solution is shorter than the last", depth < lastDepth);
+                assertTrue("the lower bound holds", solution.getFBound() <= optimalDepth);
+                GearBallSolverTests.assertSolves(gearBall, solution.getSolutionMoves());
+                lastDepth = depth;
+            }
+        }
+    }
+
+    @Test
+    public void budgetKeepsTheBestSolutionFound() {
+        // a scramble whose shortest solution is 11 moves, which weighted A* finds within a few
+        // thousand nodes but A* needs tens of thousands to prove
+        GearBall gearBall = new GearBall();
+        GearBallRandomizer.scramble(gearBall, 2004, 101);
+        GearBallAStar search = new GearBallAStar(gearBall, 64, new GearBallBucketOpenList());
+        List<GearBallSearchResult> solutions = new ArrayList<>();
+
+        GearBallSearchResult result = search.performAnytimeSearch(5.0, new GearBallSearchBudget(6000, 1.0, Long.MAX_VALUE),
+                                                                  solutions::add);
+
+        assertEquals(GearBallSearchResult.Status.NODE_LIMIT, result.getStatus());
+        assertFalse(solutions.isEmpty());
+        assertEquals(0, result.getBestHValue());
+        assertEquals(solutions.get(solutions.size() - 1).getSolutionMoves(), result.getBestMoves());
+        GearBallSolverTests.assertSolves(gearBall, result.getBestMoves());
+    }
+}
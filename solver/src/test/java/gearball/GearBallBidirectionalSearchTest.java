@@ -0,0 +1,110 @@
+/**
+ * File Name        GearBallBidirectionalSearchTest.java
+ * Purpose          Checks bidirectional search, which the other solver tests take their optimal
+ *                  depths from, against a plain breadth-first search from the solved gear ball.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class GearBallBidirectionalSearchTest {
+    // every configuration within this many moves of solved is found by the breadth-first search
+    private static final int BREADTH_FIRST_DEPTH = 4;
+    // configurations checked at each depth
+    private static final int CHECKS_PER_DEPTH = 5;
+
+    @Test
+    public void matchesBreadthFirstSearch() {
+        // configurations up to BREADTH_FIRST_DEPTH moves from solved, layer by layer
+        Set<GearBallState> reached = new HashSet<>();
+        List<List<GearBall>> layers = new ArrayList<>();
+        List<GearBall> layer = new ArrayList<>();
+
+        layer.add(new GearBall());
+        reached.add(layer.get(0).getState());
+
+        for (int depth = 1; depth <= BREADTH_FIRST_DEPTH; depth++) {
+            layer = expand(layer, reached);
+            layers.add(layer);
+        }
+
+        for (List<GearBall> configurations : layers) {
+            // spread the checks over the layer
+            for (int i = 0; i < CHECKS_PER_DEPTH; i++) {
+                GearBall gearBall = configurations.get(i * configurations.size() / CHECKS_PER_DEPTH);
+                GearBallBidirectionalSearch search = new GearBallBidirectionalSearch(gearBall);
+
+                assertTrue(search.performSearch());
+                assertEquals(breadthFirstDepth(gearBall), search.getSolutionDepth());
+                GearBallSolverTests.assertSolves(gearBall, search.getSolutionMoves());
+            }
+        }
+    }
+
+    @Test
+    public void solvesEachScrambleInNoMoreMovesThanMadeIt() {
+        for (int i = 0; i < GearBallSolverTests.NUM_SCRAMBLES; i++)
+            assertTrue(GearBallSolverTests.optimalDepth(i) <= GearBallSolverTests.SCRAMBLE_DEPTH);
+    }
+
+    @Test
+    public void solvedRootNeedsNoMoves() {
+        GearBallBidirectionalSearch search = new GearBallBidirectionalSearch(new GearBall());
+
+        assertTrue(search.performSearch());
+        assertEquals(0, search.getSolutionDepth());
+    }
+
+    /**
+     * Finds how many moves a configuration is from solved, in any orientation, by trying every
+     * sequence of moves in order of length.
+     * @param gearBall The configuration.
+     * @return The fewest moves that solve it.
+     */
+    private static int breadthFirstDepth(GearBall gearBall) {
+        Set<GearBallState> reached = new HashSet<>();
+        List<GearBall> layer = new ArrayList<>();
+
+        layer.add(gearBall);
+        reached.add(gearBall.getState());
+
+        for (int depth = 0; ; depth++) {
+            for (GearBall configuration : layer) {
+                if (configuration.isSolved()) return depth;
+            }
+
+            layer = expand(layer, reached);
+        }
+    }
+
+    /**
+     * Makes every move from every configuration in a layer.
+     * @param layer The configurations.
+     * @param reached Every configuration reached so far; the new ones are added.
+     * @return The configurations not reached before.
+     */
+    private static List<GearBall> expand(List<GearBall> layer, Set<GearBallState> reached) {
+        List<GearBall> next = new ArrayList<>();
+
+        for (GearBall gearBall : layer) {
+            for (int move = 0; move < GearBallMoveTable.NUM_MOVES; move++) {
+                GearBall child = new GearBall(gearBall);
+                child.rotate(move);
+
+                if (reached.add(child.getState()))
+                    next.add(child);
+            }
+        }
+
+        return next;
+    }
+}
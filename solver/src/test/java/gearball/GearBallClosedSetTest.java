@@ -0,0 +1,65 @@
+/**
+ * File Name        GearBallClosedSetTest.java
+ * Purpose          Checks that the closed set keeps the fewest moves each state was reached in,
+ *                  through growth and once it is full.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class GearBallClosedSetTest {
+    @Test
+    public void keepsTheLowestG() {
+        GearBallClosedSet closed = new GearBallClosedSet();
+
+        assertEquals(GearBallClosedSet.NOT_FOUND, closed.getG(42));
+        assertTrue(closed.add(42, 7));
+        assertFalse(closed.add(42, 9));
+        assertEquals(7, closed.getG(42));
+        assertTrue(closed.add(42, 5));
+        assertEquals(5, closed.getG(42));
+        assertEquals(1, closed.size());
+    }
+
+    @Test
+    public void zeroIsAFingerprintLikeAnyOther() {
+        GearBallClosedSet closed = new GearBallClosedSet();
+
+        assertFalse(closed.contains(0));
+        assertTrue(closed.add(0, 3));
+        assertTrue(closed.contains(0));
+        assertEquals(3, closed.getG(0));
+    }
+
+    @Test
+    public void growingKeepsEveryG() {
+        GearBallClosedSet closed = new GearBallClosedSet();
+
+        for (long i = 1; i <= 200000; i++)
+            closed.add(i * 0x9E3779B97F4A7C15L, (int) (i % 20));
+
+        for (long i = 1; i <= 200000; i++)
+            assertEquals((int) (i % 20), closed.getG(i * 0x9E3779B97F4A7C15L));
+        assertFalse(closed.isFull());
+    }
+
+    @Test
+    public void fullSetStillLowersG() {
+        // a 1 megabyte set cannot grow past its first table
+        GearBallClosedSet closed = new GearBallClosedSet(1);
+        long i = 1;
+
+        while (!closed.isFull())
+            closed.add(i++ * 0x9E3779B97F4A7C15L, 10);
+
+        assertFalse(closed.add(i * 0x9E3779B97F4A7C15L, 10));
+        assertFalse(closed.contains(i * 0x9E3779B97F4A7C15L));
+        assertTrue(closed.add(0x9E3779B97F4A7C15L, 4));
+        assertEquals(4, closed.getG(0x9E3779B97F4A7C15L));
+    }
+}
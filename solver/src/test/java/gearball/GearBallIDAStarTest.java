@@ -0,0 +1,58 @@
+/**
+ * File Name        GearBallIDAStarTest.java
+ * Purpose          Checks that IDA* finds shortest solutions and stops when its budget runs out.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class GearBallIDAStarTest {
+    @Test
+    public void findsOptimalSolutions() {
+        GearBallSolverTests.assertFindsOptimalSolutions("IDA*", gearBall -> {
+            GearBallIDAStar idaStar = new GearBallIDAStar(gearBall);
+            idaStar.setPrintProgress(false);
+            return idaStar.performSearch() ? idaStar.getSolutionMoves() : null;
+        });
+    }
+
+    @Test
+    public void findsOptimalSolutionsWithATranspositionTable() {
+        // one small table shared by every solve, as the batch solver shares one, so entries
+        // left by earlier scrambles are found as well
+        GearBallTranspositionTable table = new GearBallTranspositionTable(1);
+
+        GearBallSolverTests.assertFindsOptimalSolutions("IDA* with a table", gearBall -> {
+            GearBallIDAStar idaStar = new GearBallIDAStar(gearBall);
+            idaStar.setPrintProgress(false);
+            idaStar.setTranspositionTable(table);
+            return idaStar.performSearch() ? idaStar.getSolutionMoves() : null;
+        });
+
+        assertTrue(table.getHits() > 0);
+    }
+
+    @Test
+    public void solvedRootNeedsNoMoves() {
+        GearBallIDAStar idaStar = new GearBallIDAStar(new GearBall());
+        idaStar.setPrintProgress(false);
+
+        assertTrue(idaStar.performSearch());
+        assertEquals(0, idaStar.getSolutionDepth());
+    }
+
+    @Test
+    public void nodeLimitStopsTheSearch() {
+        GearBallIDAStar idaStar = new GearBallIDAStar(GearBallSolverTests.scramble(0));
+        idaStar.setPrintProgress(false);
+
+        GearBallSearchResult result = idaStar.performSearch(new GearBallSearchBudget(10, 1.0, Long.MAX_VALUE));
+
+        assertEquals(GearBallSearchResult.Status.NODE_LIMIT, result.getStatus());
+        assertTrue(result.getSolutionMoves().isEmpty());
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * File Name        GearBallMovePruningTest.java
+ * Purpose          Checks that the move pruning tables never cut off the only shortest path
+ *                  to a configuration.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class GearBallMovePruningTest {
+    // every configuration within this many moves of the start is checked
+    private static final int DEPTH = 5;
+
+    @Test
+    public void treeSearchTableKeepsAShortestPathToEveryConfiguration() {
+        assertKeepsShortestPaths(GearBallMovePruning.getTreeSearchTable());
+    }
+
+    @Test
+    public void graphSearchTableKeepsAShortestPathToEveryConfiguration() {
+        assertKeepsShortestPaths(GearBallMovePruning.getGraphSearchTable());
+    }
+
+    @Test
+    public void treeSearchTableNeverUndoesTheLastMove() {
+        GearBallMovePruning pruning = GearBallMovePruning.getTreeSearchTable();
+
+        for (int move = 0; move < GearBallMoveTable.NUM_MOVES; move++) {
+            int history = GearBallMovePruning.getNextState(GearBallMovePruning.getInitialState(), move);
+            assertTrue(!pruning.isAllowed(history, GearBallMoveTable.inverse(move)));
+        }
+    }
+
+    private static void assertKeepsShortestPaths(GearBallMovePruning pruning) {
+        GearBall start = new GearBall();
+        GearBallRandomizer.scramble(start, 20170923L, 40);
+
+        Map<GearBallState, Integer> shortest = new HashMap<>();
+        Map<GearBallState, Integer> kept = new HashMap<>();
+
+        search(new GearBall(start), 0, GearBallMovePruning.getInitialState(), null, shortest);
+        search(new GearBall(start), 0, GearBallMovePruning.getInitialState(), pruning, kept);
+
+        assertEquals(shortest.size(), kept.size());
+        for (Map.Entry<GearBallState, Integer> entry : shortest.entrySet())
+            assertEquals(entry.getValue(), kept.get(entry.getKey()));
+    }
+
+    /**
+     * Makes every sequence of up to DEPTH moves that the pruning table allows, or every
+     * sequence if there is no table, recording the fewest moves each configuration was reached in.
+     */
+    private static void search(GearBall gearBall, int depth, int history, GearBallMovePruning pruning,
+                               Map<GearBallState, Integer> reached) {
+        reached.merge(gearBall.getState(), depth, Math::min);
+        if (depth == DEPTH) return;
+
+        for (int move = 0; move < GearBallMoveTable.NUM_MOVES; move++) {
+            if (pruning != null && !pruning.isAllowed(history, move)) continue;
+
+            gearBall.rotate(move);
+            search(gearBall, depth + 1, GearBallMovePruning.getNextState(history, move), pruning, reached);
+            gearBall.rotate(GearBallMoveTable.inverse(move));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * File Name        GearBallOpenListTest.java
+ * Purpose          Checks that the open lists give nodes back in priority order, including after
+ *                  a node is replaced by one with a higher priority.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class GearBallOpenListTest {
+    // number of nodes added to each list
+    private static final int NUM_NODES = 40;
+
+    @Test
+    public void heapOpenListReordersAReplacedNodeEitherWay() {
+        assertReordersAReplacedNode(new GearBallHeapOpenList());
+    }
+
+    @Test
+    public void bucketOpenListReordersAReplacedNodeEitherWay() {
+        assertReordersAReplacedNode(new GearBallBucketOpenList());
+    }
+
+    /**
+     * Adds nodes with priorities 1 to NUM_NODES, replaces the lowest with a node for the same
+     * key that has a shorter path but the highest priority, replaces the highest with one that
+     * has the lowest, and checks every node comes back in order.
+     */
+    private static void assertReordersAReplacedNode(GearBallOpenList openList) {
+        GearBallNode root = new GearBallNode(new GearBall().getState(), null, -1, 0);
+        GearBallNode[] nodes = new GearBallNode[NUM_NODES];
+
+        // add them out of order, so the lists have to sort them
+        for (int i = 0; i < NUM_NODES; i++) {
+            int h = (i * 17) % NUM_NODES;
+            nodes[h] = new GearBallNode(scramble(i), root, 0, h);
+            openList.add(nodes[h]);
+        }
+
+        GearBallNode raised = new GearBallNode(nodes[0].getState(), null, -1, 2 * NUM_NODES);
+        openList.decreaseKey(nodes[0], raised);
+        GearBallNode lowered = new GearBallNode(nodes[NUM_NODES - 1].getState(), null, -1, 0);
+        openList.decreaseKey(nodes[NUM_NODES - 1], lowered);
+
+        assertEquals(NUM_NODES, openList.size());
+        assertTrue(openList.get(raised.getKey()) == raised);
+
+        int lastPriority = Integer.MIN_VALUE;
+        for (int i = 0; i < NUM_NODES; i++) {
+            GearBallNode node = openList.poll();
+            assertTrue(node.getPriority() >= lastPriority);
+            lastPriority = node.getPriority();
+        }
+
+        assertEquals(2 * NUM_NODES, lastPriority);
+        assertNull(openList.poll());
+    }
+
+    private static GearBallState scramble(int i) {
+        GearBall gearBall = new GearBall();
+        GearBallRandomizer.scramble(gearBall, 1000 + i, 20);
+        return gearBall.getState();
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * File Name        GearBallParallelAStarTest.java
+ * Purpose          Checks that parallel A* finds shortest solutions on one thread and on several.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class GearBallParallelAStarTest {
+    @Test
+    public void findsOptimalSolutionsOnOneThread() {
+        GearBallSolverTests.assertFindsOptimalSolutions("HDA* on 1 thread", gearBall -> {
+            GearBallParallelAStar search = new GearBallParallelAStar(gearBall, 1, new GearBallHeuristic());
+            return search.performSearch() ? search.getSolutionMoves() : null;
+        });
+    }
+
+    @Test
+    public void findsOptimalSolutionsOnSeveralThreads() {
+        // more workers than this machine may have processors, so that nodes cross between
+        // workers and some workers go idle and are woken again
+        GearBallSolverTests.assertFindsOptimalSolutions("HDA* on 4 threads", gearBall -> {
+            GearBallParallelAStar search = new GearBallParallelAStar(gearBall, 4, new GearBallHeuristic());
+            return search.performSearch() ? search.getSolutionMoves() : null;
+        });
+    }
+
+    @Test
+    public void solvedRootNeedsNoMoves() {
+        GearBallParallelAStar search = new GearBallParallelAStar(new GearBall(), 4, new GearBallHeuristic());
+
+        assertTrue(search.performSearch());
+        assertTrue(search.getSolutionMoves().isEmpty());
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * File Name        GearBallParallelIDAStarTest.java
+ * Purpose          Checks that parallel IDA* finds shortest solutions at both split depths, and
+ *                  that it stops an iteration once a solution is found.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class GearBallParallelIDAStarTest {
+    @Test
+    public void findsOptimalSolutionsSplitAtTheRootsChildren() {
+        assertFindsOptimalSolutions(1);
+    }
+
+    @Test
+    public void findsOptimalSolutionsSplitAtTheirChildren() {
+        assertFindsOptimalSolutions(2);
+    }
+
+    @Test
+    public void findsOptimalSolutionsWithATranspositionTable() {
+        GearBallTranspositionTable table = new GearBallTranspositionTable(1);
+
+        GearBallSolverTests.assertFindsOptimalSolutions("parallel IDA* with a table", gearBall -> {
+            GearBallParallelIDAStar search = new GearBallParallelIDAStar(gearBall, new GearBallHeuristic(), 4, 2);
+            search.setTranspositionTable(table);
+            return search.performSearch() ? search.getSolutionMoves() : null;
+        });
+
+        assertTrue(table.getHits() > 0);
+    }
+
+    @Test
+    public void stopsOnceASolutionIsFound() {
+        for (int i = 0; i < GearBallSolverTests.NUM_SCRAMBLES; i++) {
+            GearBall gearBall = GearBallSolverTests.scramble(i);
+            GearBallIDAStar idaStar = new GearBallIDAStar(gearBall);
+            idaStar.setPrintProgress(false);
+            assertTrue(idaStar.performSearch());
+
+            // on one thread the subtrees are searched in the order IDA* searches them, so the
+            // searches visit the same nodes up to the solution; after it, each subtree task still
+            // to run visits only its root before stopping, at most one per move in each iteration
+            GearBallParallelIDAStar search = new GearBallParallelIDAStar(gearBall, new GearBallHeuristic(), 1, 1);
+            assertTrue(search.performSearch());
+            assertEquals(idaStar.getSolutionDepth(), search.getSolutionDepth());
+
+            int maxIterations = search.getSolutionDepth() + 1;
+            assertTrue("scramble " + i + " visited " + search.getNodesVisited() + " nodes, IDA* "
+                       + idaStar.getNodesVisited(),
+                       search.getNodesVisited() <= idaStar.getNodesVisited() + GearBallMoveTable.NUM_MOVES * maxIterations);
+        }
+    }
+
+    private static void assertFindsOptimalSolutions(int splitDepth) {
+        GearBallSolverTests.assertFindsOptimalSolutions("parallel IDA* split at " + splitDepth, gearBall -> {
+            GearBallParallelIDAStar search = new GearBallParallelIDAStar(gearBall, new GearBallHeuristic(), 4, splitDepth);
+            return search.performSearch() ? search.getSolutionMoves() : null;
+        });
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * File Name        GearBallPatternDatabaseTest.java
+ * Purpose          Checks that the pattern databases give shortest solutions, that the sticker
+ *                  table is exact, and that a damaged or out of date file is built again.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GearBallPatternDatabaseTest {
+    // seed and length of the long scrambles; this many random moves puts the gear ball about
+    // as far from solved as it usually gets
+    private static final long SEED = 20170924L;
+    private static final int NUM_LONG_SCRAMBLES = 30;
+    private static final int LONG_SCRAMBLE_MOVES = 101;
+
+    // the databases are built into this folder rather than the working directory
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    // the gearball.pdb.dir property before the tests, put back afterwards
+    private static String oldDirectory;
+
+    private static GearBallGearPatternDatabase gearDatabase;
+    private static GearBallStickerPatternDatabase stickerDatabase;
+
+    @BeforeClass
+    public static void buildDatabases() {
+        oldDirectory = System.setProperty("gearball.pdb.dir", folder.getRoot().getPath());
+
+        gearDatabase = GearBallGearPatternDatabase.getInstance();
+        stickerDatabase = GearBallStickerPatternDatabase.getInstance();
+    }
+
+    @AfterClass
+    public static void restoreDirectory() {
+        if (oldDirectory == null) System.clearProperty("gearball.pdb.dir");
+        else System.setProperty("gearball.pdb.dir", oldDirectory);
+    }
+
+    @Test
+    public void databasesAreSavedToTheDirectoryGiven() {
+        assertTrue(new File(folder.getRoot(), GearBallGearPatternDatabase.FILE_NAME).isFile());
+        assertTrue(new File(folder.getRoot(), GearBallStickerPatternDatabase.FILE_NAME).isFile());
+    }
+
+    @Test
+    public void aStarWithTheDatabasesFindsOptimalSolutions() {
+        GearBallHeuristic heuristic = new GearBallHeuristic(gearDatabase, stickerDatabase);
+
+        for (int i = 0; i < NUM_LONG_SCRAMBLES; i++) {
+            GearBall gearBall = new GearBall();
+            GearBallRandomizer.scramble(gearBall, SEED + i, LONG_SCRAMBLE_MOVES);
+
+            GearBallBidirectionalSearch bidirectional = new GearBallBidirectionalSearch(gearBall);
+            assertTrue(bidirectional.performSearch());
+
+            GearBallAStar aStar = new GearBallAStar(gearBall, GearBallClosedSet.DEFAULT_MAX_MEGABYTES,
+                                                    new GearBallBucketOpenList(), heuristic);
+            assertTrue(aStar.performSearch());
+
+            List<Integer> moves = aStar.getSolutionMoves();
+            assertEquals("scramble " + i, bidirectional.getSolutionDepth(), moves.size());
+            GearBallSolverTests.assertSolves(gearBall, moves);
+
+            // no configuration on the way is further from solved than the moves left
+            GearBall onTheWay = new GearBall(gearBall);
+            for (int j = 0; j <= moves.size(); j++) {
+                assertTrue("scramble " + i + " after " + j + " moves",
+                           heuristic.getHValue(onTheWay) <= moves.size() - j);
+                if (j < moves.size()) onTheWay.rotate(moves.get(j));
+            }
+        }
+    }
+
+    @Test
+    public void allStickersTableIsAdmissible() {
+        for (int i = 0; i < GearBallSolverTests.NUM_SCRAMBLES; i++) {
+            GearBall gearBall = GearBallSolverTests.scramble(i);
+
+            assertTrue("scramble " + i, stickerDatabase.getHValue(gearBall, GearBallStickerPatternDatabase.ALL)
+                                        <= GearBallSolverTests.optimalDepth(i));
+        }
+    }
+
+    @Test
+    public void allStickersTableIsExactForTheStickers() {
+        // The table follows the color of every block but not the state of the gears, so it
+        // gives the moves needed to put every block back, which can be fewer than the
+        // shortest solution: a state with the blocks solved may still have its gears turned.
+        // A breadth-first search of whole gear balls, stopping once the blocks are solved,
+        // must find the same number of moves.
+        Random random = new Random(SEED);
+
+        for (int i = 0; i < 40; i++) {
+            GearBall gearBall = new GearBall();
+            int numMoves = 1 + random.nextInt(6);
+            for (int j = 0; j < numMoves; j++)
+                gearBall.rotate(random.nextInt(GearBallMoveTable.NUM_MOVES));
+
+            assertEquals("scramble " + i, movesToSolveTheBlocks(gearBall),
+                         stickerDatabase.getHValue(gearBall, GearBallStickerPatternDatabase.ALL));
+        }
+    }
+
+    @Test
+    public void damagedGearDatabaseIsBuiltAgain() throws IOException {
+        File good = new File(folder.getRoot(), GearBallGearPatternDatabase.FILE_NAME);
+        File file = folder.newFile();
+
+        Files.copy(good.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        truncate(file);
+        GearBallGearPatternDatabase.loadOrBuild(file);
+        assertArrayEquals(Files.readAllBytes(good.toPath()), Files.readAllBytes(file.toPath()));
+
+        Files.copy(good.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        changeVersion(file);
+        GearBallGearPatternDatabase database = GearBallGearPatternDatabase.loadOrBuild(file);
+        assertArrayEquals(Files.readAllBytes(good.toPath()), Files.readAllBytes(file.toPath()));
+        assertEquals(gearDatabase.getMaxDistance(), database.getMaxDistance());
+    }
+
+    @Test
+    public void damagedStickerDatabaseIsGeneratedAgain() throws IOException {
+        File good = new File(folder.getRoot(), GearBallStickerPatternDatabase.FILE_NAME);
+        File file = folder.newFile();
+
+        Files.copy(good.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        truncate(file);
+        GearBallStickerPatternDatabase.mapOrGenerate(file);
+        assertArrayEquals(Files.readAllBytes(good.toPath()), Files.readAllBytes(file.toPath()));
+
+        Files.copy(good.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        changeVersion(file);
+        GearBallStickerPatternDatabase database = GearBallStickerPatternDatabase.mapOrGenerate(file);
+        assertArrayEquals(Files.readAllBytes(good.toPath()), Files.readAllBytes(file.toPath()));
+        assertEquals(stickerDatabase.getNumStates(GearBallStickerPatternDatabase.ALL),
+                     database.getNumStates(GearBallStickerPatternDatabase.ALL));
+    }
+
+    /**
+     * Breadth-first search of whole gear balls for the fewest moves that make every block of
+     * each face that face's color, whatever state the gears are left in.
+     * @param gearBall The configuration to search from; it is not modified.
+     * @return The number of moves.
+     */
+    private static int movesToSolveTheBlocks(GearBall gearBall) {
+        HashSet<GearBallState> reached = new HashSet<>();
+        List<GearBall> layer = new ArrayList<>();
+        layer.add(new GearBall(gearBall));
+        reached.add(gearBall.getState());
+
+        for (int depth = 0; ; depth++) {
+            List<GearBall> nextLayer = new ArrayList<>();
+
+            for (GearBall configuration : layer) {
+                if (blocksSolved(configuration)) return depth;
+
+                for (int moveNum = 0; moveNum < GearBallMoveTable.NUM_MOVES; moveNum++) {
+                    GearBall child = new GearBall(configuration);
+                    child.rotate(moveNum);
+                    if (reached.add(child.getState())) nextLayer.add(child);
+                }
+            }
+
+            assertFalse("no configuration with the blocks solved", nextLayer.isEmpty());
+            layer = nextLayer;
+        }
+    }
+
+    /**
+     * @param gearBall The configuration of the gear ball.
+     * @return true if every block of each face is the same color
+     */
+    private static boolean blocksSolved(GearBall gearBall) {
+        for (GearBallFace face : gearBall.getFaces()) {
+            for (int block = 1; block < GearBallState.BLOCKS_PER_FACE; block++) {
+                if (GearBallState.blockColor(face, block) != GearBallState.blockColor(face, 0)) return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Cuts a file to half its length, as a write that was interrupted would leave it.
+     * @param file The file to cut.
+     */
+    private static void truncate(File file) throws IOException {
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.setLength(out.length() / 2);
+        }
+    }
+
+    /**
+     * Changes the version number in a file's header, the second int after the magic number.
+     * @param file The file to change.
+     */
+    private static void changeVersion(File file) throws IOException {
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.seek(Integer.BYTES);
+            int version = out.readInt();
+            out.seek(Integer.BYTES);
+            out.writeInt(version + 1);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * File Name        GearBallSolverTests.java
+ * Purpose          Seeded scrambles and the checks the solver tests share: the optimal depth of
+ *                  each scramble, found once by bidirectional search, and that a solution solves
+ *                  its scramble.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+final class GearBallSolverTests {
+    // seeds and depths of the scrambles; short enough that every solver finishes them quickly
+    // with the counting heuristic
+    private static final long SEED = 20170923L;
+    static final int NUM_SCRAMBLES = 12;
+    static final int SCRAMBLE_DEPTH = 7;
+
+    // the length of each scramble's shortest solution, worked out on first use
+    private static int[] optimalDepths;
+
+    private GearBallSolverTests() {
+    }
+
+    /**
+     * A solver under test.
+     */
+    interface Solver {
+        /**
+         * @param gearBall The scramble; it must not be modified.
+         * @return The moves of the solution found, or null if none was found.
+         */
+        List<Integer> solve(GearBall gearBall);
+    }
+
+    /**
+     * @param i The scramble number (0 - NUM_SCRAMBLES - 1).
+     * @return A new gear ball in the scramble's configuration.
+     */
+    static GearBall scramble(int i) {
+        GearBall gearBall = new GearBall();
+        GearBallRandomizer.scramble(gearBall, SEED + i, SCRAMBLE_DEPTH);
+        return gearBall;
+    }
+
+    /**
+     * Gets the length of a scramble's shortest solution. Bidirectional search finds it without
+     * a heuristic, so it checks the heuristic searches independently of any heuristic; it is
+     * solved once for every test that needs it.
+     * @param i The scramble number (0 - NUM_SCRAMBLES - 1).
+     * @return The length of the shortest solution.
+     */
+    static synchronized int optimalDepth(int i) {
+        if (optimalDepths == null) {
+            optimalDepths = new int[NUM_SCRAMBLES];
+
+            for (int j = 0; j < NUM_SCRAMBLES; j++) {
+                GearBall gearBall = scramble(j);
+                GearBallBidirectionalSearch search = new GearBallBidirectionalSearch(gearBall);
+
+                assertTrue(search.performSearch());
+                assertSolves(gearBall, search.getSolutionMoves());
+                optimalDepths[j] = search.getSolutionDepth();
+            }
+        }
+
+        return optimalDepths[i];
+    }
+
+    /**
+     * Checks that a solver finds a shortest solution to every scramble.
+     * @param name The solver's name, for the failure messages.
+     * @param solver The solver.
+     */
+    static void assertFindsOptimalSolutions(String name, Solver solver) {
+        for (int i = 0; i < NUM_SCRAMBLES; i++) {
+            GearBall gearBall = scramble(i);
+            List<Integer> moves = solver.solve(gearBall);
+
+            assertTrue(name + " found no solution to scramble " + i, moves != null);
+            assertEquals(name + " on scramble " + i, optimalDepth(i), moves.size());
+            assertSolves(gearBall, moves);
+        }
+    }
+
+    /**
+     * Checks that a solution takes a scramble to the solved gear ball.
+     * @param gearBall The scramble; it is not modified.
+     * @param moves The solution's moves.
+     */
+    static void assertSolves(GearBall gearBall, List<Integer> moves) {
+        GearBall solved = new GearBall(gearBall);
+
+        for (int move : moves)
+            solved.rotate(move);
+
+        assertTrue("the moves " + moves + " do not solve the scramble", solved.isSolved());
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * File Name        GearBallTranspositionTableTest.java
+ * Purpose          Checks how the transposition table stores, finds and replaces entries.
+ */
+
+package gearball;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+public class GearBallTranspositionTableTest {
+    // the smallest table, so that keys can be picked to share a bucket
+    private static final int MEGABYTES = 1;
+
+    @Test
+    public void storedEntryIsFound() {
+        GearBallTranspositionTable table = new GearBallTranspositionTable(MEGABYTES);
+        long key = GearBallTranspositionTable.getKey(new GearBall().getState().longHash(), 5);
+
+        assertEquals(GearBallTranspositionTable.MISS, table.probe(key));
+        table.store(key, 3, 10);
+
+        long entry = table.probe(key);
+        assertNotEquals(GearBallTranspositionTable.MISS, entry);
+        assertEquals(3, GearBallTranspositionTable.getG(entry));
+        assertEquals(10, GearBallTranspositionTable.getBound(entry));
+        assertEquals(7, GearBallTranspositionTable.getDistance(entry));
+        assertEquals(1, table.getHits());
+        assertEquals(1, table.getMisses());
+    }
+
+    @Test
+    public void keyOnlyFindsItsOwnEntry() {
+        GearBallTranspositionTable table = new GearBallTranspositionTable(MEGABYTES);
+
+        // the same configuration after different moves, and another key in the same bucket
+        long stateHash = new GearBall().getState().longHash();
+        table.store(GearBallTranspositionTable.getKey(stateHash, 1), 0, 0);
+
+        assertEquals(GearBallTranspositionTable.MISS, table.probe(GearBallTranspositionTable.getKey(stateHash, 2)));
+        table.store(sameBucket(1), 2, 4);
+        assertEquals(GearBallTranspositionTable.MISS, table.probe(sameBucket(2)));
+
+        // an entry with g and bound 0 is still told apart from an empty slot
+        assertNotEquals(GearBallTranspositionTable.MISS, table.probe(GearBallTranspositionTable.getKey(stateHash, 1)));
+    }
+
+    @Test
+    public void deeperEntryReplacesAShallowerOne() {
+        GearBallTranspositionTable table = new GearBallTranspositionTable(MEGABYTES);
+        long key = sameBucket(1);
+
+        table.store(key, 5, 8);
+        table.store(key, 2, 10);
+        assertEquals(8, GearBallTranspositionTable.getDistance(table.probe(key)));
+
+        // a shallower search of the same state is not worth more than the deeper one
+        table.store(key, 4, 6);
+        assertEquals(2, GearBallTranspositionTable.getG(table.probe(key)));
+        assertEquals(0, table.getReplacements());
+    }
+
+    @Test
+    public void fullBucketKeepsItsDeeperEntries() {
+        GearBallTranspositionTable table = new GearBallTranspositionTable(MEGABYTES);
+
+        // four entries fill a bucket, with distances 5 to 8
+        for (int i = 1; i <= 4; i++)
+            table.store(sameBucket(i), 0, 4 + i);
+
+        // too shallow to replace any of them
+        table.store(sameBucket(5), 0, 3);
+        assertEquals(GearBallTranspositionTable.MISS, table.probe(sameBucket(5)));
+        assertEquals(0, table.getReplacements());
+
+        // as deep as the shallowest, which it replaces
+        table.store(sameBucket(6), 0, 5);
+        assertEquals(5, GearBallTranspositionTable.getDistance(table.probe(sameBucket(6))));
+        assertEquals(GearBallTranspositionTable.MISS, table.probe(sameBucket(1)));
+        assertEquals(1, table.getReplacements());
+
+        for (int i = 2; i <= 4; i++)
+            assertEquals(4 + i, GearBallTranspositionTable.getDistance(table.probe(sameBucket(i))));
+    }
+
+    @Test
+    public void largeBoundsMeanNoSolutionBelow() {
+        GearBallTranspositionTable table = new GearBallTranspositionTable(MEGABYTES);
+
+        table.store(sameBucket(1), 3, 0xFFFF);
+        table.store(sameBucket(2), 3, 0x10000);
+        table.store(sameBucket(3), 3, Integer.MAX_VALUE);
+        table.store(sameBucket(4), 3, 0xFFFE);
+
+        for (int i = 1; i <= 3; i++) {
+            long entry = table.probe(sameBucket(i));
+            assertEquals(Integer.MAX_VALUE, GearBallTranspositionTable.getBound(entry));
+            assertEquals(Integer.MAX_VALUE, GearBallTranspositionTable.getDistance(entry));
+        }
+
+        assertEquals(0xFFFE, GearBallTranspositionTable.getBound(table.probe(sameBucket(4))));
+    }
+
+    /**
+     * Makes distinct keys that all fall in the first bucket: the table picks the bucket from the
+     * two halves of the key XORed together, which cancel out when they are equal.
+     * @param i A number from 1 up, one per key.
+     * @return The key.
+     */
+    private static long sameBucket(int i) {
+        return ((long) i << 32) | i;
+    }
+}